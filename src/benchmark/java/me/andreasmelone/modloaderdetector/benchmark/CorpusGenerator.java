@@ -0,0 +1,413 @@
+package me.andreasmelone.modloaderdetector.benchmark;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static me.andreasmelone.modloaderdetector.util.Util.GSON;
+
+/**
+ * Fabricates a {@code .minecraft}-style directory tree filled with version jsons, so the scanner can be measured
+ * against the filesystem instead of in-memory strings.<p>
+ * Every file ends up at {@code <root>/versions/<id>/<id>.json}. The corpus is a fixed mix of vanilla, Forge, NeoForge,
+ * Fabric, Quilt and legacy Forge profiles with varying library counts, custom profiles that inherit from another
+ * loader profile, and a share of malformed files. The same seed always produces the same tree.
+ */
+public class CorpusGenerator {
+    private static final String[] MODERN_RELEASES = {
+            "1.16.5", "1.18.2", "1.19.2", "1.19.4", "1.20.1", "1.20.2", "1.20.4", "1.20.6", "1.21", "1.21.1", "1.21.4"
+    };
+    private static final String[] LEGACY_RELEASES = {"1.7.10", "1.8.9", "1.10.2", "1.12.2"};
+    private static final String[] PRE_RELEASES = {"24w14a", "24w18a", "1.20.5-pre1", "1.21-rc1", "23w51b"};
+    private static final String[] FABRIC_LOADERS = {"0.14.21", "0.14.24", "0.15.3", "0.15.11", "0.16.5", "0.16.9"};
+    private static final String[] QUILT_LOADERS = {"0.19.2", "0.20.2", "0.24.0", "0.26.4"};
+    private static final String[] FORGE_LOADERS = {"36.2.39", "40.2.0", "43.3.0", "47.1.0", "47.2.0", "47.3.0", "49.0.30"};
+    private static final String[] NEOFORGE_LOADERS = {"20.2.88", "20.4.190", "20.4.237", "20.6.119", "21.0.167", "21.1.77"};
+    private static final String[] LEGACY_FORGE_LOADERS = {"10.13.4.1614", "11.15.1.2318", "12.18.3.2511", "14.23.5.2860"};
+
+    /**
+     * What kind of file was generated, in the order they are picked from when generating.
+     */
+    public enum Kind {
+        VANILLA(30), FABRIC(15), QUILT(6), FORGE(14), NEOFORGE(10), LEGACY_FORGE(7), INHERITED(10), MALFORMED(8);
+
+        private final int weight;
+
+        Kind(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    private final Random random;
+
+    public CorpusGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Writes the given amount of version jsons below the root.
+     *
+     * @param root  the directory which will contain the {@code versions} folder, it is created if missing
+     * @param files how many version jsons to write
+     * @return statistics about what was written
+     * @throws IOException if writing fails
+     */
+    public Stats generate(Path root, int files) throws IOException {
+        Path versions = root.resolve("versions");
+        Files.createDirectories(versions);
+
+        Stats stats = new Stats();
+        List<String> loaderIds = new ArrayList<>();
+        int totalWeight = 0;
+        for (Kind kind : Kind.values()) totalWeight += kind.weight;
+
+        for (int i = 0; i < files; i++) {
+            Kind kind = pick(totalWeight);
+            if (kind == Kind.INHERITED && loaderIds.isEmpty()) kind = Kind.FABRIC;
+
+            String id;
+            byte[] content;
+            switch (kind) {
+                case VANILLA: {
+                    String mc = pickVanilla();
+                    id = mc + "-" + i;
+                    content = toBytes(vanilla(id, mc));
+                    break;
+                }
+                case FABRIC: {
+                    String mc = pick(MODERN_RELEASES);
+                    String loader = pick(FABRIC_LOADERS);
+                    id = "fabric-loader-" + loader + "-" + mc + "-" + i;
+                    content = toBytes(knot(id, mc, "net.fabricmc", "fabric-loader", loader,
+                            "net.fabricmc.loader.impl.launch.knot.KnotClient"));
+                    loaderIds.add(id);
+                    break;
+                }
+                case QUILT: {
+                    String mc = pick(MODERN_RELEASES);
+                    String loader = pick(QUILT_LOADERS);
+                    id = "quilt-loader-" + loader + "-" + mc + "-" + i;
+                    content = toBytes(knot(id, mc, "org.quiltmc", "quilt-loader", loader,
+                            "org.quiltmc.loader.impl.launch.knot.KnotClient"));
+                    loaderIds.add(id);
+                    break;
+                }
+                case FORGE: {
+                    String mc = pick(MODERN_RELEASES);
+                    String loader = pick(FORGE_LOADERS);
+                    id = mc + "-forge-" + loader + "-" + i;
+                    content = toBytes(bootstrap(id, mc, "forgeclient", "--fml.forgeVersion", loader,
+                            "net.minecraftforge", "fmlloader"));
+                    loaderIds.add(id);
+                    break;
+                }
+                case NEOFORGE: {
+                    String mc = pick(MODERN_RELEASES);
+                    String loader = pick(NEOFORGE_LOADERS);
+                    id = "neoforge-" + loader + "-" + i;
+                    content = toBytes(bootstrap(id, mc, "neoforgeclient", "--fml.neoForgeVersion", loader,
+                            "net.neoforged.fancymodloader", "loader"));
+                    loaderIds.add(id);
+                    break;
+                }
+                case LEGACY_FORGE: {
+                    String mc = pick(LEGACY_RELEASES);
+                    String loader = mc + "-" + pick(LEGACY_FORGE_LOADERS);
+                    id = mc + "-forge" + loader + "-" + i;
+                    content = toBytes(legacyForge(id, mc, loader));
+                    loaderIds.add(id);
+                    break;
+                }
+                case INHERITED: {
+                    String parent = loaderIds.get(random.nextInt(loaderIds.size()));
+                    id = "custom-" + i;
+                    content = toBytes(inherited(id, parent));
+                    break;
+                }
+                default: {
+                    id = "broken-" + i;
+                    content = malformed(id);
+                    break;
+                }
+            }
+
+            Path dir = versions.resolve(id);
+            Files.createDirectories(dir);
+            Files.write(dir.resolve(id + ".json"), content);
+            stats.record(kind, content.length);
+        }
+        return stats;
+    }
+
+    private Kind pick(int totalWeight) {
+        int roll = random.nextInt(totalWeight);
+        for (Kind kind : Kind.values()) {
+            roll -= kind.weight;
+            if (roll < 0) return kind;
+        }
+        return Kind.MALFORMED;
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private String pickVanilla() {
+        int roll = random.nextInt(10);
+        if (roll < 6) return pick(MODERN_RELEASES);
+        if (roll < 8) return pick(LEGACY_RELEASES);
+        return pick(PRE_RELEASES);
+    }
+
+    private JsonObject vanilla(String id, String mc) {
+        JsonObject json = new JsonObject();
+        json.addProperty("id", id);
+        json.addProperty("type", mc.contains("w") || mc.contains("-") ? "snapshot" : "release");
+        json.addProperty("mainClass", "net.minecraft.client.main.Main");
+        json.addProperty("releaseTime", "2023-06-12T13:25:51+00:00");
+        json.addProperty("complianceLevel", 1);
+
+        JsonObject assetIndex = new JsonObject();
+        assetIndex.addProperty("id", "5");
+        assetIndex.addProperty("sha1", sha1());
+        assetIndex.addProperty("size", 410000 + random.nextInt(20000));
+        assetIndex.addProperty("url", "https://piston-meta.mojang.com/v1/packages/" + sha1() + "/5.json");
+        json.add("assetIndex", assetIndex);
+
+        JsonArray game = new JsonArray();
+        for (String arg : new String[] {"--username", "${auth_player_name}", "--version", "${version_name}",
+                "--gameDir", "${game_directory}", "--assetsDir", "${assets_root}", "--assetIndex",
+                "${assets_index_name}", "--uuid", "${auth_uuid}", "--accessToken", "${auth_access_token}"}) {
+            game.add(arg);
+        }
+        game.add(ruled("--demo", "is_demo_user"));
+        game.add(ruled("--width", "has_custom_resolution"));
+        JsonArray jvm = new JsonArray();
+        jvm.add("-Djava.library.path=${natives_directory}");
+        jvm.add("-cp");
+        jvm.add("${classpath}");
+        json.add("arguments", arguments(game, jvm));
+
+        json.add("libraries", libraries(40 + random.nextInt(80)));
+        return json;
+    }
+
+    private JsonObject knot(String id, String mc, String group, String artifact, String loader, String mainClass) {
+        JsonObject json = new JsonObject();
+        json.addProperty("id", id);
+        json.addProperty("inheritsFrom", mc);
+        json.addProperty("type", "release");
+        json.addProperty("mainClass", mainClass);
+        json.addProperty("releaseTime", "2024-04-01T10:00:00+0000");
+
+        JsonArray game = new JsonArray();
+        JsonArray jvm = new JsonArray();
+        jvm.add("-DFabricMcEmu= net.minecraft.client.main.Main ");
+        json.add("arguments", arguments(game, jvm));
+
+        JsonArray libraries = libraries(5 + random.nextInt(20));
+        libraries.add(library(group + ":" + artifact + ":" + loader));
+        libraries.add(library(group + ":intermediary:" + mc));
+        json.add("libraries", libraries);
+        return json;
+    }
+
+    private JsonObject bootstrap(String id, String mc, String launchTarget, String versionFlag, String loader,
+                                 String loaderGroup, String loaderArtifact) {
+        JsonObject json = new JsonObject();
+        json.addProperty("id", id);
+        json.addProperty("inheritsFrom", mc);
+        json.addProperty("type", "release");
+        json.addProperty("mainClass", "cpw.mods.bootstraplauncher.BootstrapLauncher");
+
+        JsonArray game = new JsonArray();
+        for (String arg : new String[] {"--launchTarget", launchTarget, versionFlag, loader,
+                "--fml.mcVersion", mc, "--fml.neoFormVersion", "20231207.154220"}) {
+            game.add(arg);
+        }
+        JsonArray jvm = new JsonArray();
+        jvm.add("-Djava.net.preferIPv6Addresses=system");
+        jvm.add("-DignoreList=client-extra,${version_name}.jar");
+        jvm.add("-DlibraryDirectory=${library_directory}");
+        jvm.add("-p");
+        jvm.add("${library_directory}/cpw/mods/bootstraplauncher/1.1.2/bootstraplauncher-1.1.2.jar");
+        json.add("arguments", arguments(game, jvm));
+
+        JsonArray libraries = libraries(20 + random.nextInt(40));
+        libraries.add(library(loaderGroup + ":" + loaderArtifact + ":" + loader));
+        json.add("libraries", libraries);
+        return json;
+    }
+
+    private JsonObject legacyForge(String id, String mc, String loader) {
+        JsonObject json = new JsonObject();
+        json.addProperty("id", id);
+        json.addProperty("inheritsFrom", mc);
+        json.addProperty("type", "release");
+        json.addProperty("mainClass", "net.minecraft.launchwrapper.Launch");
+        json.addProperty("minecraftArguments", "--username ${auth_player_name} --version ${version_name} "
+                + "--gameDir ${game_directory} --assetsDir ${assets_root} --assetIndex ${assets_index_name} "
+                + "--uuid ${auth_uuid} --accessToken ${auth_access_token} --userType ${user_type} "
+                + "--tweakClass net.minecraftforge.fml.common.launcher.FMLTweaker --versionType Forge");
+
+        JsonArray libraries = new JsonArray();
+        libraries.add(library("net.minecraftforge:forge:" + loader));
+        libraries.add(library("net.minecraft:launchwrapper:1.12"));
+        JsonArray rest = libraries(10 + random.nextInt(20));
+        libraries.addAll(rest);
+        json.add("libraries", libraries);
+        return json;
+    }
+
+    private JsonObject inherited(String id, String parent) {
+        // a profile a launcher or a user made on top of an installed loader, it only adds a few jvm arguments
+        JsonObject json = new JsonObject();
+        json.addProperty("id", id);
+        json.addProperty("inheritsFrom", parent);
+        json.addProperty("type", "release");
+        JsonArray jvm = new JsonArray();
+        jvm.add("-Xmx" + (2 + random.nextInt(8)) + "G");
+        json.add("arguments", arguments(new JsonArray(), jvm));
+        json.add("libraries", libraries(random.nextInt(3)));
+        return json;
+    }
+
+    private byte[] malformed(String id) {
+        switch (random.nextInt(5)) {
+            case 0:
+                return new byte[0];
+            case 1: {
+                // a download that was cut off
+                byte[] full = toBytes(vanilla(id, pick(MODERN_RELEASES)));
+                byte[] truncated = new byte[1 + random.nextInt(full.length - 1)];
+                System.arraycopy(full, 0, truncated, 0, truncated.length);
+                return truncated;
+            }
+            case 2:
+                return "[\"not\", \"a\", \"version\"]".getBytes(StandardCharsets.UTF_8);
+            case 3: {
+                byte[] garbage = new byte[64 + random.nextInt(4096)];
+                random.nextBytes(garbage);
+                return garbage;
+            }
+            default:
+                return ("{\"id\": \"" + id + "\", \"note\": \"nothing useful in here\"}").getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    private JsonObject arguments(JsonArray game, JsonArray jvm) {
+        JsonObject arguments = new JsonObject();
+        arguments.add("game", game);
+        arguments.add("jvm", jvm);
+        return arguments;
+    }
+
+    private JsonObject ruled(String value, String feature) {
+        JsonObject features = new JsonObject();
+        features.addProperty(feature, true);
+        JsonObject rule = new JsonObject();
+        rule.addProperty("action", "allow");
+        rule.add("features", features);
+        JsonArray rules = new JsonArray();
+        rules.add(rule);
+
+        JsonObject argument = new JsonObject();
+        argument.add("rules", rules);
+        argument.addProperty("value", value);
+        return argument;
+    }
+
+    private JsonArray libraries(int count) {
+        JsonArray libraries = new JsonArray();
+        for (int i = 0; i < count; i++) {
+            libraries.add(library("com.example.lib" + random.nextInt(500) + ":artifact-" + i + ":"
+                    + random.nextInt(10) + "." + random.nextInt(30) + "." + random.nextInt(10)));
+        }
+        return libraries;
+    }
+
+    private JsonObject library(String notation) {
+        String[] split = notation.split(":");
+        String path = split[0].replace('.', '/') + "/" + split[1] + "/" + split[2] + "/" + split[1] + "-" + split[2] + ".jar";
+
+        JsonObject artifact = new JsonObject();
+        artifact.addProperty("path", path);
+        artifact.addProperty("sha1", sha1());
+        artifact.addProperty("size", 1000 + random.nextInt(2_000_000));
+        artifact.addProperty("url", "https://libraries.minecraft.net/" + path);
+        JsonObject downloads = new JsonObject();
+        downloads.add("artifact", artifact);
+
+        JsonObject library = new JsonObject();
+        library.add("downloads", downloads);
+        library.addProperty("name", notation);
+        if (random.nextInt(8) == 0) {
+            JsonObject os = new JsonObject();
+            os.addProperty("name", random.nextBoolean() ? "osx" : "windows");
+            JsonObject rule = new JsonObject();
+            rule.addProperty("action", "allow");
+            rule.add("os", os);
+            JsonArray rules = new JsonArray();
+            rules.add(rule);
+            library.add("rules", rules);
+        }
+        return library;
+    }
+
+    private String sha1() {
+        StringBuilder builder = new StringBuilder(40);
+        for (int i = 0; i < 40; i++) {
+            builder.append(Character.forDigit(random.nextInt(16), 16));
+        }
+        return builder.toString();
+    }
+
+    private static byte[] toBytes(JsonObject json) {
+        return GSON.toJson(json).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * How many files of each kind were written and how large the corpus is.
+     */
+    public static class Stats {
+        private final int[] counts = new int[Kind.values().length];
+        private long totalBytes;
+        private int totalFiles;
+
+        private void record(Kind kind, int bytes) {
+            counts[kind.ordinal()]++;
+            totalBytes += bytes;
+            totalFiles++;
+        }
+
+        public int getCount(Kind kind) {
+            return counts[kind.ordinal()];
+        }
+
+        public long getTotalBytes() {
+            return totalBytes;
+        }
+
+        public int getTotalFiles() {
+            return totalFiles;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder();
+            builder.append(totalFiles).append(" files, ").append(totalBytes / 1024).append(" KiB (");
+            for (Kind kind : Kind.values()) {
+                if (kind.ordinal() > 0) builder.append(", ");
+                builder.append(kind.name().toLowerCase()).append('=').append(counts[kind.ordinal()]);
+            }
+            return builder.append(')').toString();
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package me.andreasmelone.modloaderdetector.benchmark;
+
+import me.andreasmelone.modloaderdetector.DetectionLimits;
+import me.andreasmelone.modloaderdetector.scan.ScanResult;
+import me.andreasmelone.modloaderdetector.scan.VersionScanner;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * End-to-end throughput benchmark: generates a synthetic {@code .minecraft} tree with {@link CorpusGenerator} and runs
+ * the {@link VersionScanner} over it, which is the same code path {@code standalone.Main} uses.<p>
+ * Usage: {@code gradle benchmark -PbenchmarkArgs="--files 100000 --mode both"}<p>
+ * Options:
+ * <ul>
+ *     <li>{@code --files <n>} how many version jsons to generate, defaults to 10000</li>
+ *     <li>{@code --mode cold|warm|both} which passes to run, defaults to both</li>
+ *     <li>{@code --iterations <n>} measured warm passes, defaults to 3</li>
+ *     <li>{@code --seed <n>} seed for the generator, defaults to 42</li>
+ *     <li>{@code --dir <path>} scan an existing tree or generate into this directory instead of a temporary one</li>
+ *     <li>{@code --keep} do not delete the generated tree afterwards</li>
+ *     <li>{@code --limited} scan with {@link DetectionLimits#DEFAULT} instead of without limits</li>
+ * </ul>
+ * The cold pass must not share a JVM with the generator, which already initialised Gson and warmed up the JIT. So when
+ * the tree is generated, the cold pass runs in a child JVM over the generated tree; when an existing tree is scanned
+ * with {@code --dir}, this JVM is still fresh and runs it itself. Either way the cold pass tries to drop the OS page
+ * cache through {@code /proc/sys/vm/drop_caches} first. That only works as root on Linux; otherwise the pass is still
+ * cold for the JVM but the files come from the page cache, which is reported.
+ */
+public class ScanBenchmark {
+    public static void main(String[] args) throws IOException {
+        int files = 10_000;
+        String mode = "both";
+        int iterations = 3;
+        long seed = 42;
+        Path dir = null;
+        boolean keep = false;
+        DetectionLimits limits = DetectionLimits.UNLIMITED;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--files": files = Integer.parseInt(args[++i]); break;
+                case "--mode": mode = args[++i].toLowerCase(Locale.ROOT); break;
+                case "--iterations": iterations = Integer.parseInt(args[++i]); break;
+                case "--seed": seed = Long.parseLong(args[++i]); break;
+                case "--dir": dir = Paths.get(args[++i]); break;
+                case "--keep": keep = true; break;
+                case "--limited": limits = DetectionLimits.DEFAULT; break;
+                default: throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        if (!mode.equals("cold") && !mode.equals("warm") && !mode.equals("both")) {
+            throw new IllegalArgumentException("--mode must be cold, warm or both, got " + mode);
+        }
+
+        boolean generated = false;
+        if (dir == null) {
+            dir = Files.createTempDirectory("modloaderdetector-bench");
+        }
+        if (!Files.isDirectory(dir.resolve("versions"))) {
+            long start = System.nanoTime();
+            CorpusGenerator.Stats stats = new CorpusGenerator(seed).generate(dir, files);
+            generated = true;
+            System.out.printf(Locale.ROOT, "Generated %s in %.1f s at %s%n",
+                    stats, (System.nanoTime() - start) / 1e9, dir);
+        } else {
+            System.out.println("Scanning existing tree at " + dir);
+        }
+
+        Path versions = dir.resolve("versions");
+        VersionScanner scanner = new VersionScanner(Integer.MAX_VALUE, limits);
+        try {
+            if (!mode.equals("warm") && generated) {
+                runColdInFreshJvm(dir, limits);
+            } else if (!mode.equals("warm")) {
+                boolean dropped = dropPageCache();
+                report(dropped ? "cold" : "cold (JVM only, page cache not dropped)", run(scanner, versions));
+            }
+            if (!mode.equals("cold")) {
+                run(scanner, versions); // warmup, fills the page cache and lets the JIT settle
+                for (int i = 1; i <= iterations; i++) {
+                    report("warm #" + i, run(scanner, versions));
+                }
+            }
+        } finally {
+            if (generated && !keep) delete(dir);
+        }
+    }
+
+    private static void runColdInFreshJvm(Path dir, DetectionLimits limits) throws IOException {
+        Path java = Paths.get(System.getProperty("java.home"), "bin", "java");
+        ProcessBuilder builder = new ProcessBuilder(java.toString(), "-cp", System.getProperty("java.class.path"),
+                ScanBenchmark.class.getName(), "--dir", dir.toString(), "--mode", "cold");
+        if (limits != DetectionLimits.UNLIMITED) builder.command().add("--limited");
+        try {
+            int exit = builder.inheritIO().start().waitFor();
+            if (exit != 0) throw new IOException("The cold pass failed with exit code " + exit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the cold pass", e);
+        }
+    }
+
+    private static Result run(VersionScanner scanner, Path versions) throws IOException {
+        System.gc();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) pool.resetPeakUsage();
+        }
+
+        Result result = new Result();
+        long start = System.nanoTime();
+        scanner.scan(versions, result::record);
+        result.wallNanos = System.nanoTime() - start;
+
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) result.peakHeap += pool.getPeakUsage().getUsed();
+        }
+        return result;
+    }
+
+    private static void report(String label, Result result) {
+        long[] latencies = Arrays.copyOf(result.latencies, result.files);
+        Arrays.sort(latencies);
+        double seconds = result.wallNanos / 1e9;
+
+        System.out.printf(Locale.ROOT,
+                "%-40s %9d files  %10.0f files/s  %8.1f MB/s  p50 %7.1f us  p99 %8.1f us  peak heap %6.1f MB"
+                        + "  (detected %d, undetected %d, invalid %d, io errors %d, limit exceeded %d)%n",
+                label, result.files, result.files / seconds, result.bytes / 1e6 / seconds,
+                percentile(latencies, 0.50) / 1e3, percentile(latencies, 0.99) / 1e3, result.peakHeap / 1e6,
+                result.statuses[ScanResult.Status.DETECTED.ordinal()],
+                result.statuses[ScanResult.Status.UNDETECTED.ordinal()],
+                result.statuses[ScanResult.Status.INVALID_JSON.ordinal()],
+                result.statuses[ScanResult.Status.IO_ERROR.ordinal()],
+                result.statuses[ScanResult.Status.LIMIT_EXCEEDED.ordinal()]);
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static boolean dropPageCache() {
+        Path dropCaches = Paths.get("/proc/sys/vm/drop_caches");
+        if (!Files.isWritable(dropCaches)) return false;
+        try {
+            new ProcessBuilder("sync").inheritIO().start().waitFor();
+            try (OutputStream out = Files.newOutputStream(dropCaches)) {
+                out.write("3".getBytes(StandardCharsets.US_ASCII));
+            }
+            return true;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void delete(Path dir) throws IOException {
+        Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path directory, IOException exc) throws IOException {
+                Files.delete(directory);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static class Result {
+        private long[] latencies = new long[1024];
+        private final int[] statuses = new int[ScanResult.Status.values().length];
+        private int files;
+        private long bytes;
+        private long wallNanos;
+        private long peakHeap;
+
+        private void record(ScanResult result) {
+            if (files == latencies.length) latencies = Arrays.copyOf(latencies, files * 2);
+            latencies[files++] = result.getDurationNanos();
+            bytes += result.getBytes();
+            statuses[result.getStatus().ordinal()]++;
+        }
+    }
+}
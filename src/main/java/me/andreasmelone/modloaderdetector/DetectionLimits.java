@@ -0,0 +1,177 @@
+package me.andreasmelone.modloaderdetector;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Hard limits for detecting the loader from untrusted input, e.g. files uploaded by users to a shared service.
+ * When one of them is exceeded, detection stops early with a {@link LimitExceededException} instead of reading a huge
+ * file into memory, building an arbitrarily deep json tree or stalling.<p>
+ * Instances are immutable, the {@code with} methods return a modified copy:
+ * <pre>{@code
+ * DetectionLimits limits = DetectionLimits.DEFAULT.withMaxBytes(1024 * 1024).withTimeBudget(Duration.ofMillis(200));
+ * }</pre>
+ */
+public final class DetectionLimits {
+    /**
+     * No limits at all, this is what the methods without a limits parameter behave like.
+     */
+    public static final DetectionLimits UNLIMITED = new DetectionLimits(
+            Long.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, Long.MAX_VALUE);
+
+    /**
+     * Limits that are far above anything a real launcher writes: 8 MiB, a nesting depth of 64, 4096 libraries,
+     * 4096 arguments and two seconds per file.
+     */
+    public static final DetectionLimits DEFAULT = new DetectionLimits(
+            8L * 1024 * 1024, 64, 4096, 4096, Duration.ofSeconds(2).toNanos());
+
+    /**
+     * The different limits, reported by {@link LimitExceededException#getLimit()}.
+     */
+    public enum Limit {
+        BYTES, DEPTH, LIBRARIES, ARGUMENTS, TIME
+    }
+
+    private final long maxBytes;
+    private final int maxDepth;
+    private final int maxLibraries;
+    private final int maxArguments;
+    private final long timeBudgetNanos;
+
+    private DetectionLimits(long maxBytes, int maxDepth, int maxLibraries, int maxArguments, long timeBudgetNanos) {
+        if (maxBytes < 0 || maxDepth < 1 || maxLibraries < 0 || maxArguments < 0 || timeBudgetNanos < 0) {
+            throw new IllegalArgumentException("Limits must not be negative and the depth must be at least 1");
+        }
+        this.maxBytes = maxBytes;
+        this.maxDepth = maxDepth;
+        this.maxLibraries = maxLibraries;
+        this.maxArguments = maxArguments;
+        this.timeBudgetNanos = timeBudgetNanos;
+    }
+
+    /**
+     * @param maxBytes the maximum size of a file in bytes
+     * @return a copy with the given limit
+     */
+    @NotNull
+    public DetectionLimits withMaxBytes(long maxBytes) {
+        return new DetectionLimits(maxBytes, maxDepth, maxLibraries, maxArguments, timeBudgetNanos);
+    }
+
+    /**
+     * @param maxDepth the maximum nesting depth of json objects and arrays, the root object counts as 1
+     * @return a copy with the given limit
+     */
+    @NotNull
+    public DetectionLimits withMaxDepth(int maxDepth) {
+        return new DetectionLimits(maxBytes, maxDepth, maxLibraries, maxArguments, timeBudgetNanos);
+    }
+
+    /**
+     * @param maxLibraries the maximum amount of entries in the {@code libraries} array
+     * @return a copy with the given limit
+     */
+    @NotNull
+    public DetectionLimits withMaxLibraries(int maxLibraries) {
+        return new DetectionLimits(maxBytes, maxDepth, maxLibraries, maxArguments, timeBudgetNanos);
+    }
+
+    /**
+     * @param maxArguments the maximum amount of entries in each of the {@code arguments.game} and
+     *                     {@code arguments.jvm} arrays
+     * @return a copy with the given limit
+     */
+    @NotNull
+    public DetectionLimits withMaxArguments(int maxArguments) {
+        return new DetectionLimits(maxBytes, maxDepth, maxLibraries, maxArguments, timeBudgetNanos);
+    }
+
+    /**
+     * @param timeBudget how long reading, parsing and detecting a single file may take
+     * @return a copy with the given limit
+     */
+    @NotNull
+    public DetectionLimits withTimeBudget(@NotNull Duration timeBudget) {
+        return new DetectionLimits(maxBytes, maxDepth, maxLibraries, maxArguments, timeBudget.toNanos());
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public int getMaxLibraries() {
+        return maxLibraries;
+    }
+
+    public int getMaxArguments() {
+        return maxArguments;
+    }
+
+    public long getTimeBudgetNanos() {
+        return timeBudgetNanos;
+    }
+
+    /**
+     * Throws if a value is above the given limit.
+     *
+     * @param limit the limit that is checked
+     * @param value the current value
+     * @throws LimitExceededException if the value exceeds the limit
+     */
+    public void check(@NotNull Limit limit, long value) throws LimitExceededException {
+        long max;
+        switch (limit) {
+            case BYTES: max = maxBytes; break;
+            case DEPTH: max = maxDepth; break;
+            case LIBRARIES: max = maxLibraries; break;
+            case ARGUMENTS: max = maxArguments; break;
+            default: max = timeBudgetNanos; break;
+        }
+        if (value > max) throw new LimitExceededException(limit, max, value);
+    }
+
+    /**
+     * Throws if the time budget is used up.
+     *
+     * @param startNanos the {@link System#nanoTime()} at which work on the file started
+     * @throws LimitExceededException if more time than the budget has passed
+     */
+    public void checkTime(long startNanos) throws LimitExceededException {
+        if (timeBudgetNanos == Long.MAX_VALUE) return;
+        check(Limit.TIME, System.nanoTime() - startNanos);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        DetectionLimits that = (DetectionLimits) o;
+        return maxBytes == that.maxBytes
+                && maxDepth == that.maxDepth
+                && maxLibraries == that.maxLibraries
+                && maxArguments == that.maxArguments
+                && timeBudgetNanos == that.timeBudgetNanos;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(maxBytes, maxDepth, maxLibraries, maxArguments, timeBudgetNanos);
+    }
+
+    @Override
+    public String toString() {
+        return "DetectionLimits{" +
+                "maxBytes=" + maxBytes +
+                ", maxDepth=" + maxDepth +
+                ", maxLibraries=" + maxLibraries +
+                ", maxArguments=" + maxArguments +
+                ", timeBudgetNanos=" + timeBudgetNanos +
+                '}';
+    }
+}
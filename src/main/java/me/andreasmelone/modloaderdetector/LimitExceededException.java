@@ -0,0 +1,43 @@
+package me.andreasmelone.modloaderdetector;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Thrown when detection is stopped early because the input exceeds one of the {@link DetectionLimits}.
+ */
+public class LimitExceededException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    @NotNull private final DetectionLimits.Limit limit;
+    private final long max;
+    private final long actual;
+
+    public LimitExceededException(@NotNull DetectionLimits.Limit limit, long max, long actual) {
+        super(limit + " limit exceeded: " + actual + " > " + max);
+        this.limit = limit;
+        this.max = max;
+        this.actual = actual;
+    }
+
+    /**
+     * @return which limit was exceeded
+     */
+    @NotNull
+    public DetectionLimits.Limit getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return the configured maximum
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * @return the value that was reached when detection stopped, which may be lower than the real size of the input
+     */
+    public long getActual() {
+        return actual;
+    }
+}
@@ -2,17 +2,24 @@ package me.andreasmelone.modloaderdetector;
 
 import com.google.gson.JsonObject;
 import com.google.gson.JsonSyntaxException;
+import me.andreasmelone.modloaderdetector.jfr.Events;
+import me.andreasmelone.modloaderdetector.util.LimitedJsonParser;
 import me.andreasmelone.modloaderdetector.util.MavenDependency;
 import me.andreasmelone.modloaderdetector.versionjson.MinecraftVersionJson;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static me.andreasmelone.modloaderdetector.util.Util.*;
 
@@ -207,18 +214,7 @@ public enum ModLoader {
      */
     @NotNull
     public static Optional<ModLoaderData> findModLoader(JsonObject json) {
-        for (ModLoader loader : values()) {
-            Optional<ModLoaderData> data;
-            try {
-                data = loader.getModLoaderData(json);
-            } catch (Exception e) {
-                data = Optional.empty();
-            }
-            if (data.isPresent()) {
-                return data;
-            }
-        }
-        return Optional.empty();
+        return findModLoader(json, DetectionLimits.UNLIMITED, System.nanoTime());
     }
 
     /**
@@ -230,12 +226,15 @@ public enum ModLoader {
      */
     @NotNull
     public static Optional<ModLoaderData> findModLoader(String jsonString) throws JsonSyntaxException {
-        JsonObject parsed = GSON.fromJson(jsonString, JsonObject.class);
+        JsonObject parsed = parse(null, jsonString == null ? 0 : jsonString.length(),
+                () -> GSON.fromJson(jsonString, JsonObject.class));
         return findModLoader(parsed);
     }
 
     /**
      * Attempts to identify the mod loader from a JSON file path.
+     * The file is read and parsed without any limits, use {@link #findModLoader(Path, DetectionLimits)} for files
+     * that cannot be trusted.
      *
      * @param pathToJson the path to the JSON file
      * @return an optional with the modloader data if the loader is found or empty if no loader is found
@@ -244,8 +243,10 @@ public enum ModLoader {
      */
     @NotNull
     public static Optional<ModLoaderData> findModLoader(Path pathToJson) throws IOException, JsonSyntaxException {
-        String content = new String(Files.readAllBytes(pathToJson), StandardCharsets.UTF_8);
-        return findModLoader(content);
+        byte[] content = read(pathToJson, DetectionLimits.UNLIMITED, System.nanoTime());
+        JsonObject parsed = parse(pathToJson, content.length,
+                () -> GSON.fromJson(new String(content, StandardCharsets.UTF_8), JsonObject.class));
+        return findModLoader(parsed);
     }
 
     /**
@@ -260,4 +261,110 @@ public enum ModLoader {
     public static Optional<ModLoaderData> findModLoader(File jsonFile) throws IOException, JsonSyntaxException {
         return findModLoader(jsonFile.toPath());
     }
+
+    /**
+     * Attempts to identify the mod loader from a JSON string, within the given limits.
+     *
+     * @param jsonString a JSON-formatted string representing launch metadata, {@code null} is treated like an empty string
+     * @param limits     the limits to enforce, {@link DetectionLimits#getMaxBytes()} applies to the UTF-8 encoded length
+     * @return an optional with the modloader data if the loader is found or empty if no loader is found
+     * @throws JsonSyntaxException    if the json is invalid
+     * @throws LimitExceededException if the json exceeds one of the limits
+     */
+    @NotNull
+    public static Optional<ModLoaderData> findModLoader(String jsonString, @NotNull DetectionLimits limits)
+            throws JsonSyntaxException, LimitExceededException {
+        if (jsonString == null) return Optional.empty();
+        long start = System.nanoTime();
+        // a char takes one to three bytes in UTF-8, only encode if the length alone cannot tell
+        limits.check(DetectionLimits.Limit.BYTES, jsonString.length());
+        if ((long) jsonString.length() * 3 > limits.getMaxBytes()) {
+            limits.check(DetectionLimits.Limit.BYTES, jsonString.getBytes(StandardCharsets.UTF_8).length);
+        }
+        JsonObject parsed = parse(null, jsonString.length(),
+                () -> LimitedJsonParser.parse(new StringReader(jsonString), limits, start));
+        return findModLoader(parsed, limits, start);
+    }
+
+    /**
+     * Attempts to identify the mod loader from a JSON file path, within the given limits.
+     * Use this over {@link #findModLoader(Path)} for files that cannot be trusted.
+     *
+     * @param pathToJson the path to the JSON file
+     * @param limits     the limits to enforce
+     * @return an optional with the modloader data if the loader is found or empty if no loader is found
+     * @throws IOException            if the file could not be read
+     * @throws JsonSyntaxException    if the file contains invalid json
+     * @throws LimitExceededException if the file exceeds one of the limits
+     */
+    @NotNull
+    public static Optional<ModLoaderData> findModLoader(Path pathToJson, @NotNull DetectionLimits limits)
+            throws IOException, JsonSyntaxException, LimitExceededException {
+        long start = System.nanoTime();
+        byte[] content = read(pathToJson, limits, start);
+        JsonObject parsed = parse(pathToJson, content.length, () -> LimitedJsonParser.parse(
+                new InputStreamReader(new ByteArrayInputStream(content), StandardCharsets.UTF_8), limits, start));
+        return findModLoader(parsed, limits, start);
+    }
+
+    /**
+     * Attempts to identify the mod loader from a JSON file, within the given limits.
+     *
+     * @param jsonFile the JSON file
+     * @param limits   the limits to enforce
+     * @return an optional with the modloader data if the loader is found or empty if no loader is found
+     * @throws IOException            if the file could not be read
+     * @throws JsonSyntaxException    if the file contains invalid json
+     * @throws LimitExceededException if the file exceeds one of the limits
+     */
+    @NotNull
+    public static Optional<ModLoaderData> findModLoader(File jsonFile, @NotNull DetectionLimits limits)
+            throws IOException, JsonSyntaxException, LimitExceededException {
+        return findModLoader(jsonFile.toPath(), limits);
+    }
+
+    private static Optional<ModLoaderData> findModLoader(JsonObject json, DetectionLimits limits, long start) {
+        if (json == null) return Optional.empty();
+        for (ModLoader loader : values()) {
+            limits.checkTime(start);
+            Object event = Events.beginDetector();
+            Optional<ModLoaderData> data;
+            try {
+                data = loader.getModLoaderData(json);
+            } catch (Exception e) {
+                data = Optional.empty();
+            }
+            Events.endDetector(event, loader.name(), data.isPresent());
+            if (data.isPresent()) {
+                return data;
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static byte[] read(Path path, DetectionLimits limits, long start) throws IOException {
+        Object event = Events.beginFileRead();
+        byte[] content = null;
+        try {
+            content = limits == DetectionLimits.UNLIMITED ? Files.readAllBytes(path) : readAllBytes(path, limits, start);
+            return content;
+        } finally {
+            Events.endFileRead(event, path, content == null ? -1 : content.length);
+        }
+    }
+
+    private static JsonObject parse(@Nullable Path path, long length, Supplier<JsonObject> parser) {
+        Object event = Events.beginParse();
+        String outcome = "invalid json";
+        try {
+            JsonObject parsed = parser.get();
+            outcome = "ok";
+            return parsed;
+        } catch (LimitExceededException e) {
+            outcome = e.getMessage();
+            throw e;
+        } finally {
+            Events.endParse(event, path, length, outcome);
+        }
+    }
 }
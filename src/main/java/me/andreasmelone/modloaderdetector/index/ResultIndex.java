@@ -0,0 +1,317 @@
+package me.andreasmelone.modloaderdetector.index;
+
+import me.andreasmelone.modloaderdetector.ModLoader;
+import me.andreasmelone.modloaderdetector.ModLoaderData;
+import me.andreasmelone.modloaderdetector.scan.ScanResult;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * An in-memory store for scan results that answers fleet queries like
+ * "all NeoForge instances on 1.20.x with a loader below 20.4.200".<p>
+ * Every detected result is keyed once with {@link VersionKeys} when it is added. Per loader, the keys live in
+ * primitive columns sorted by Minecraft version, so a query binary-searches the Minecraft range and only looks at the
+ * loader keys inside it. Results that were not {@link ScanResult.Status#DETECTED detected} are not indexed.<p>
+ * The index is not thread-safe. Queries sort the columns lazily after results were added, so they count as writes.
+ *
+ * <pre>{@code
+ * index.query(ModLoader.NEOFORGE).minecraftSeries("1.20").loaderBelow("20.4.200").list();
+ * index.query(ModLoader.FABRIC).loaderAtLeast("0.15").groupByMinecraftVersion();
+ * }</pre>
+ */
+public class ResultIndex {
+    private final List<ScanResult> rows = new ArrayList<>();
+    private final Map<ModLoader, Column> columns = new EnumMap<>(ModLoader.class);
+
+    /**
+     * Adds a result to the index.
+     *
+     * @param result the result
+     * @return {@code true} if the result was indexed, {@code false} if it contains no data
+     */
+    public boolean add(@NotNull ScanResult result) {
+        Optional<ModLoaderData> data = result.getData();
+        if (!data.isPresent()) return false;
+
+        int row = rows.size();
+        rows.add(result);
+        columns.computeIfAbsent(data.get().getLoader(), loader -> new Column()).add(
+                VersionKeys.minecraft(data.get().getMinecraftVersion()),
+                VersionKeys.loader(data.get().getLoaderVersion()),
+                row);
+        return true;
+    }
+
+    /**
+     * Adds all results to the index.
+     *
+     * @param results the results, e.g. from {@link me.andreasmelone.modloaderdetector.scan.VersionScanner#scan}
+     */
+    public void addAll(@NotNull Iterable<ScanResult> results) {
+        for (ScanResult result : results) add(result);
+    }
+
+    /**
+     * @return the amount of indexed results
+     */
+    public int size() {
+        return rows.size();
+    }
+
+    /**
+     * Starts a query over all results of one loader. Without any further constraints it matches all of them.
+     *
+     * @param loader the loader
+     * @return the query
+     */
+    @NotNull
+    public Query query(@NotNull ModLoader loader) {
+        return new Query(loader);
+    }
+
+    /**
+     * A range query over the results of one loader. Lower bounds are inclusive, upper bounds exclusive.
+     * As soon as a bound is set for a version, results whose version could not be parsed no longer match.<p>
+     * Minecraft bounds stay within the domain of the version they are given as: a release bound like
+     * {@code minecraftBelow("1.20")} never matches weekly snapshots and a snapshot bound never matches releases,
+     * see {@link VersionKeys}. Snapshots are only matched when asked for, e.g. with {@link #minecraftSnapshots()}.
+     */
+    public class Query {
+        private final ModLoader loader;
+        private long minecraftMin = Long.MIN_VALUE;
+        private long minecraftMax = Long.MAX_VALUE;
+        private long loaderMin = Long.MIN_VALUE;
+        private long loaderMax = Long.MAX_VALUE;
+
+        private Query(ModLoader loader) {
+            this.loader = loader;
+        }
+
+        /**
+         * @param series a release series like {@code 1.20} or {@code 1.20.x}, including its pre-releases
+         * @return this query
+         */
+        public Query minecraftSeries(@NotNull String series) {
+            minecraftMin = Math.max(minecraftMin, VersionKeys.minecraftSeriesStart(series));
+            minecraftMax = Math.min(minecraftMax, VersionKeys.minecraftSeriesEnd(series));
+            return this;
+        }
+
+        public Query minecraftAtLeast(@NotNull String version) {
+            long key = requireKey(VersionKeys.minecraft(version), version);
+            restrictToDomainOf(key);
+            minecraftMin = Math.max(minecraftMin, key);
+            return this;
+        }
+
+        public Query minecraftBelow(@NotNull String version) {
+            long key = requireKey(VersionKeys.minecraft(version), version);
+            restrictToDomainOf(key);
+            minecraftMax = Math.min(minecraftMax, key);
+            return this;
+        }
+
+        /**
+         * Only matches weekly snapshots like {@code 24w14a}. Combined with a release bound nothing matches.
+         *
+         * @return this query
+         */
+        public Query minecraftSnapshots() {
+            minecraftMin = Math.max(minecraftMin, 0);
+            minecraftMax = Math.min(minecraftMax, VersionKeys.releaseDomainStart());
+            return this;
+        }
+
+        public Query loaderAtLeast(@NotNull String version) {
+            loaderMin = Math.max(loaderMin, requireKey(VersionKeys.loader(version), version));
+            return this;
+        }
+
+        public Query loaderBelow(@NotNull String version) {
+            loaderMin = Math.max(loaderMin, 0);
+            loaderMax = Math.min(loaderMax, requireKey(VersionKeys.loader(version), version));
+            return this;
+        }
+
+        /**
+         * @return the matching results, ordered by Minecraft version
+         */
+        @NotNull
+        public List<ScanResult> list() {
+            List<ScanResult> matches = new ArrayList<>();
+            Column column = columns.get(loader);
+            if (column == null) return matches;
+
+            int end = column.firstAtLeast(minecraftMax);
+            for (int i = column.firstAtLeast(minecraftMin); i < end; i++) {
+                if (column.matchesLoader(i, loaderMin, loaderMax)) matches.add(rows.get(column.rows[i]));
+            }
+            return matches;
+        }
+
+        /**
+         * @return the amount of matching results
+         */
+        public int count() {
+            Column column = columns.get(loader);
+            if (column == null) return 0;
+
+            int count = 0;
+            int end = column.firstAtLeast(minecraftMax);
+            for (int i = column.firstAtLeast(minecraftMin); i < end; i++) {
+                if (column.matchesLoader(i, loaderMin, loaderMax)) count++;
+            }
+            return count;
+        }
+
+        /**
+         * Groups the matching results by Minecraft version. Versions that produce the same key, like {@code 1.20}
+         * and {@code 1.20.0}, end up in the same group, named after the first result of the group. Versions that
+         * cannot be parsed are grouped by their exact string and come first.
+         *
+         * @return the groups, ordered by Minecraft version
+         */
+        @NotNull
+        public Map<String, List<ScanResult>> groupByMinecraftVersion() {
+            Map<String, List<ScanResult>> groups = new LinkedHashMap<>();
+            Column column = columns.get(loader);
+            if (column == null) return groups;
+
+            List<ScanResult> group = null;
+            long groupKey = 0;
+            int end = column.firstAtLeast(minecraftMax);
+            for (int i = column.firstAtLeast(minecraftMin); i < end; i++) {
+                if (!column.matchesLoader(i, loaderMin, loaderMax)) continue;
+
+                ScanResult result = rows.get(column.rows[i]);
+                if (column.minecraft[i] == VersionKeys.UNPARSEABLE) {
+                    // all unparseable versions share one key, only their strings tell them apart
+                    groups.computeIfAbsent(result.getData().get().getMinecraftVersion(), v -> new ArrayList<>()).add(result);
+                    continue;
+                }
+                // the column is sorted by minecraft key, so every group is one contiguous run
+                if (group == null || column.minecraft[i] != groupKey) {
+                    groupKey = column.minecraft[i];
+                    group = groups.computeIfAbsent(result.getData().get().getMinecraftVersion(), v -> new ArrayList<>());
+                }
+                group.add(result);
+            }
+            return groups;
+        }
+
+        private void restrictToDomainOf(long minecraftKey) {
+            if (VersionKeys.isSnapshot(minecraftKey)) {
+                minecraftSnapshots();
+            } else {
+                minecraftMin = Math.max(minecraftMin, VersionKeys.releaseDomainStart());
+            }
+        }
+
+        private long requireKey(long key, String version) {
+            if (key == VersionKeys.UNPARSEABLE) throw new IllegalArgumentException("Cannot parse version " + version);
+            return key;
+        }
+    }
+
+    /**
+     * The keys of all results of one loader, as parallel arrays sorted by Minecraft key and then loader key.
+     */
+    private static class Column {
+        private long[] minecraft = new long[16];
+        private long[] loader = new long[16];
+        private int[] rows = new int[16];
+        private int size;
+        private boolean sorted = true;
+
+        private void add(long minecraftKey, long loaderKey, int row) {
+            if (size == rows.length) {
+                minecraft = Arrays.copyOf(minecraft, size * 2);
+                loader = Arrays.copyOf(loader, size * 2);
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            if (size > 0 && compare(minecraftKey, loaderKey, size - 1) < 0) sorted = false;
+            minecraft[size] = minecraftKey;
+            loader[size] = loaderKey;
+            rows[size] = row;
+            size++;
+        }
+
+        private boolean matchesLoader(int i, long min, long max) {
+            return loader[i] >= min && loader[i] < max;
+        }
+
+        /**
+         * @return the first position whose minecraft key is at least the given key, used for both ends of a range
+         * because the upper bounds are exclusive
+         */
+        private int firstAtLeast(long minecraftKey) {
+            sort();
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (minecraft[mid] < minecraftKey) low = mid + 1;
+                else high = mid;
+            }
+            return low;
+        }
+
+        private int compare(long minecraftKey, long loaderKey, int i) {
+            int result = Long.compare(minecraftKey, minecraft[i]);
+            return result != 0 ? result : Long.compare(loaderKey, loader[i]);
+        }
+
+        private void sort() {
+            if (sorted) return;
+            sort(0, size - 1);
+            sorted = true;
+        }
+
+        private void sort(int from, int to) {
+            // plain quicksort over the three parallel arrays, boxing millions of rows for a comparator is not an option
+            while (to - from > 16) {
+                int pivot = (from + to) >>> 1;
+                long pivotMinecraft = minecraft[pivot];
+                long pivotLoader = loader[pivot];
+                int i = from;
+                int j = to;
+                while (i <= j) {
+                    while (compare(minecraft[i], loader[i], pivotMinecraft, pivotLoader) < 0) i++;
+                    while (compare(minecraft[j], loader[j], pivotMinecraft, pivotLoader) > 0) j--;
+                    if (i <= j) swap(i++, j--);
+                }
+                // recurse into the smaller half to keep the stack shallow
+                if (j - from < to - i) {
+                    sort(from, j);
+                    from = i;
+                } else {
+                    sort(i, to);
+                    to = j;
+                }
+            }
+            for (int i = from + 1; i <= to; i++) {
+                for (int j = i; j > from && compare(minecraft[j], loader[j], minecraft[j - 1], loader[j - 1]) < 0; j--) {
+                    swap(j, j - 1);
+                }
+            }
+        }
+
+        private static int compare(long minecraftA, long loaderA, long minecraftB, long loaderB) {
+            int result = Long.compare(minecraftA, minecraftB);
+            return result != 0 ? result : Long.compare(loaderA, loaderB);
+        }
+
+        private void swap(int a, int b) {
+            long m = minecraft[a];
+            minecraft[a] = minecraft[b];
+            minecraft[b] = m;
+            long l = loader[a];
+            loader[a] = loader[b];
+            loader[b] = l;
+            int r = rows[a];
+            rows[a] = rows[b];
+            rows[b] = r;
+        }
+    }
+}
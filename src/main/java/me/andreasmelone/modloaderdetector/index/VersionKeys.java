@@ -0,0 +1,169 @@
+package me.andreasmelone.modloaderdetector.index;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Packs version strings into {@code long} keys whose natural order is the version order, so versions can be stored in
+ * primitive arrays, sorted and range-searched without ever parsing the string again.<p>
+ * Minecraft keys come in two separate domains:
+ * <ul>
+ *     <li>Releases, pre-releases and release candidates ({@code 1.20.4}, {@code 1.20.5-pre1}, {@code 1.21-rc1}).
+ *     A pre-release sorts before the release candidates of the same version, which sort before the release itself.</li>
+ *     <li>Weekly snapshots ({@code 24w14a}), ordered by year, week and letter. Which release a snapshot leads up to
+ *     cannot be derived from its name, so all snapshots sort before all releases.</li>
+ * </ul>
+ * Anything else (old alpha and beta versions, april fools versions, custom ids) yields {@link #UNPARSEABLE}.
+ * Use {@link #isSnapshot(long)} to tell the domains apart; comparing keys across them says nothing about release order.
+ */
+public final class VersionKeys {
+    /**
+     * Returned for strings that cannot be packed. It is smaller than every valid key.
+     */
+    public static final long UNPARSEABLE = -1;
+
+    private static final Pattern RELEASE = Pattern.compile(
+            "(\\d+)\\.(\\d+)(?:\\.(\\d+))?(?:(-pre|-rc| Pre-Release |-snapshot-)(\\d+))?");
+    private static final Pattern SNAPSHOT = Pattern.compile("(\\d{2})w(\\d{2})([a-z])");
+    private static final Pattern LOADER = Pattern.compile("(\\d+)(?:\\.(\\d+))?(?:\\.(\\d+))?(?:\\.(\\d+))?(?:[-+].*)?");
+
+    // minecraft release domain: | 1 | major 8 | minor 12 | patch 12 | stage 4 | stage number 16 | unused 10 |
+    private static final long RELEASE_DOMAIN = 1L << 62;
+    private static final int STAGE_SNAPSHOT = 0;
+    private static final int STAGE_PRE = 1;
+    private static final int STAGE_RC = 2;
+    private static final int STAGE_RELEASE = 3;
+
+    private VersionKeys() {}
+
+    /**
+     * @param key a key from {@link #minecraft(String)}
+     * @return whether the key belongs to the weekly snapshot domain
+     */
+    public static boolean isSnapshot(long key) {
+        return key >= 0 && key < RELEASE_DOMAIN;
+    }
+
+    /**
+     * @return the smallest key of the release domain, every snapshot key is below it
+     */
+    static long releaseDomainStart() {
+        return RELEASE_DOMAIN;
+    }
+
+    /**
+     * Packs a Minecraft version.
+     *
+     * @param version the version, e.g. {@code 1.20.4}, {@code 1.20.5-pre1} or {@code 24w14a}
+     * @return the sort key or {@link #UNPARSEABLE}
+     */
+    public static long minecraft(@Nullable String version) {
+        if (version == null) return UNPARSEABLE;
+
+        Matcher release = RELEASE.matcher(version);
+        if (release.matches()) {
+            int stage = STAGE_RELEASE;
+            int stageNumber = 0;
+            if (release.group(4) != null) {
+                String marker = release.group(4);
+                if (marker.equals("-rc")) stage = STAGE_RC;
+                else if (marker.equals("-snapshot-")) stage = STAGE_SNAPSHOT;
+                else stage = STAGE_PRE;
+                stageNumber = parse(release.group(5), 0xFFFF);
+            }
+            return release(parse(release.group(1), 0xFF), parse(release.group(2), 0xFFF),
+                    release.group(3) == null ? 0 : parse(release.group(3), 0xFFF), stage, stageNumber);
+        }
+
+        Matcher snapshot = SNAPSHOT.matcher(version);
+        if (snapshot.matches()) {
+            // | 0 | year 12 | week 12 | letter 8 | unused 31 |
+            long year = Long.parseLong(snapshot.group(1));
+            long week = Long.parseLong(snapshot.group(2));
+            long letter = snapshot.group(3).charAt(0) - 'a' + 1;
+            return year << 51 | week << 39 | letter << 31;
+        }
+        return UNPARSEABLE;
+    }
+
+    /**
+     * @param series a release series, e.g. {@code 1.20} or {@code 1.20.x}
+     * @return the smallest key of the series, which is the key of its earliest possible snapshot stage
+     * @throws IllegalArgumentException if the series is not {@code major.minor}
+     */
+    public static long minecraftSeriesStart(String series) {
+        int[] parsed = parseSeries(series);
+        return release(parsed[0], parsed[1], 0, STAGE_SNAPSHOT, 0);
+    }
+
+    /**
+     * @param series a release series, e.g. {@code 1.20} or {@code 1.20.x}
+     * @return the smallest key after the series, i.e. the exclusive upper bound of {@code 1.20.*}
+     * @throws IllegalArgumentException if the series is not {@code major.minor}
+     */
+    public static long minecraftSeriesEnd(String series) {
+        int[] parsed = parseSeries(series);
+        return release(parsed[0], parsed[1] + 1, 0, STAGE_SNAPSHOT, 0);
+    }
+
+    /**
+     * Packs a loader version with up to four numeric components of which the first may be up to 32767 and the others
+     * up to 65535, larger values are clamped. Missing components count as zero, so {@code 0.15} equals
+     * {@code 0.15.0}. Suffixes like {@code -beta} or {@code +build.1} are ignored. Legacy Forge versions which are
+     * prefixed with the Minecraft version ({@code 1.12.2-14.23.5.2860}) are keyed by the part after the prefix.
+     *
+     * @param version the loader version, e.g. {@code 20.4.200} or {@code 0.15.11}
+     * @return the sort key or {@link #UNPARSEABLE}
+     */
+    public static long loader(@Nullable String version) {
+        if (version == null) return UNPARSEABLE;
+
+        int dash = version.indexOf('-');
+        if (dash > 0 && isLegacyForgePrefix(version.substring(0, dash))) {
+            String rest = version.substring(dash + 1);
+            Matcher matcher = LOADER.matcher(rest);
+            // only a real loader version after the prefix counts, "20.4.200-1" is a NeoForge build, not a prefix
+            if (matcher.matches() && matcher.group(2) != null) version = rest;
+        }
+
+        Matcher matcher = LOADER.matcher(version);
+        if (!matcher.matches()) return UNPARSEABLE;
+        long key = parse(matcher.group(1), 0x7FFF);
+        for (int i = 2; i <= 4; i++) {
+            key = key << 16 | (matcher.group(i) == null ? 0 : parse(matcher.group(i), 0xFFFF));
+        }
+        return key;
+    }
+
+    /**
+     * Legacy Forge prefixed its versions with the Minecraft version it was built for, which was at most 1.12.2.
+     */
+    private static boolean isLegacyForgePrefix(String prefix) {
+        Matcher release = RELEASE.matcher(prefix);
+        if (!release.matches() || release.group(4) != null) return false;
+        return minecraft(prefix) <= minecraft("1.12.2");
+    }
+
+    private static long release(long major, long minor, long patch, long stage, long stageNumber) {
+        return RELEASE_DOMAIN | major << 54 | minor << 42 | patch << 30 | stage << 26 | stageNumber << 10;
+    }
+
+    private static int[] parseSeries(String series) {
+        String trimmed = series.endsWith(".x") ? series.substring(0, series.length() - 2) : series;
+        String[] split = trimmed.split("\\.");
+        if (split.length != 2) throw new IllegalArgumentException("Not a release series: " + series);
+        try {
+            return new int[] {parse(split[0], 0xFF), parse(split[1], 0xFFE)};
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a release series: " + series, e);
+        }
+    }
+
+    private static int parse(String number, int max) {
+        // the regexes only let digits through, but there can be too many of them for an int
+        if (number.length() > 9) return max;
+        return Math.min(Integer.parseInt(number), max);
+    }
+}
@@ -0,0 +1,20 @@
+package me.andreasmelone.modloaderdetector.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Emitted for every loader that is checked against a parsed json, so the time spent per loader can be compared.
+ */
+@Name("me.andreasmelone.modloaderdetector.Detector")
+@Label("Loader Detector")
+@Category({"ModLoaderDetector", "Detection"})
+@Description("Evaluating a single loader against a parsed version json")
+@Enabled(false)
+@StackTrace(false)
+public class DetectorEvent extends Event {
+    @Label("Loader")
+    public String loader;
+
+    @Label("Matched")
+    public boolean matched;
+}
@@ -0,0 +1,70 @@
+package me.andreasmelone.modloaderdetector.jfr;
+
+import me.andreasmelone.modloaderdetector.scan.ScanResult;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.file.Path;
+
+/**
+ * The only way the rest of the library emits the events of this package.<p>
+ * Runtimes without the {@code jdk.jfr} module (e.g. a jlink image that left it out) cannot link the event classes at
+ * all. This class never references them itself: it checks once whether {@code jdk.jfr} is present and only then
+ * delegates to {@link JfrEvents}, otherwise every method is a no-op. The {@code begin} methods return an opaque handle,
+ * or {@code null} if there is nothing to record, which has to be passed to the matching {@code end} method.
+ */
+public final class Events {
+    private static final boolean AVAILABLE = isJfrPresent();
+
+    private Events() {}
+
+    private static boolean isJfrPresent() {
+        try {
+            Class.forName("jdk.jfr.Event", false, Events.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    @Nullable
+    public static Object beginFileRead() {
+        return AVAILABLE ? JfrEvents.beginFileRead() : null;
+    }
+
+    /**
+     * @param bytes the amount of bytes read, or {@code -1} if reading failed
+     */
+    public static void endFileRead(@Nullable Object handle, Path path, long bytes) {
+        if (handle != null) JfrEvents.endFileRead(handle, path, bytes);
+    }
+
+    @Nullable
+    public static Object beginParse() {
+        return AVAILABLE ? JfrEvents.beginParse() : null;
+    }
+
+    public static void endParse(@Nullable Object handle, @Nullable Path path, long length, String outcome) {
+        if (handle != null) JfrEvents.endParse(handle, path, length, outcome);
+    }
+
+    @Nullable
+    public static Object beginDetector() {
+        return AVAILABLE ? JfrEvents.beginDetector() : null;
+    }
+
+    public static void endDetector(@Nullable Object handle, String loader, boolean matched) {
+        if (handle != null) JfrEvents.endDetector(handle, loader, matched);
+    }
+
+    @Nullable
+    public static Object beginScanBatch() {
+        return AVAILABLE ? JfrEvents.beginScanBatch() : null;
+    }
+
+    /**
+     * @param statuses the amount of results per {@link ScanResult.Status}, indexed by ordinal
+     */
+    public static void endScanBatch(@Nullable Object handle, Path root, int[] statuses, long bytes) {
+        if (handle != null) JfrEvents.endScanBatch(handle, root, statuses, bytes);
+    }
+}
@@ -0,0 +1,22 @@
+package me.andreasmelone.modloaderdetector.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Emitted for every version json that is read from disk by {@link me.andreasmelone.modloaderdetector.ModLoader}.
+ */
+@Name("me.andreasmelone.modloaderdetector.FileRead")
+@Label("Version JSON Read")
+@Category({"ModLoaderDetector", "I/O"})
+@Description("Reading a version json from disk")
+@Enabled(false)
+@StackTrace(false)
+public class FileReadEvent extends Event {
+    @Label("Path")
+    public String path;
+
+    @Label("Bytes Read")
+    @Description("The size of the file, or -1 if it could not be read completely")
+    @DataAmount
+    public long bytes = -1;
+}
@@ -0,0 +1,89 @@
+package me.andreasmelone.modloaderdetector.jfr;
+
+import me.andreasmelone.modloaderdetector.scan.ScanResult;
+
+import java.nio.file.Path;
+
+/**
+ * The part of {@link Events} that links against {@code jdk.jfr}, it is only loaded once the module is known to exist.
+ * A disabled event is dropped right after it is created, before any timestamp is taken, so {@link Events} skips the
+ * matching {@code end} call. The event fields are only filled in if the event passed its threshold.
+ */
+final class JfrEvents {
+    private JfrEvents() {}
+
+    static Object beginFileRead() {
+        FileReadEvent event = new FileReadEvent();
+        if (!event.isEnabled()) return null;
+        event.begin();
+        return event;
+    }
+
+    static void endFileRead(Object handle, Path path, long bytes) {
+        FileReadEvent event = (FileReadEvent) handle;
+        event.end();
+        if (event.shouldCommit()) {
+            event.path = path.toString();
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+
+    static Object beginParse() {
+        ParseEvent event = new ParseEvent();
+        if (!event.isEnabled()) return null;
+        event.begin();
+        return event;
+    }
+
+    static void endParse(Object handle, Path path, long length, String outcome) {
+        ParseEvent event = (ParseEvent) handle;
+        event.end();
+        if (event.shouldCommit()) {
+            event.path = path == null ? null : path.toString();
+            event.length = length;
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
+
+    static Object beginDetector() {
+        DetectorEvent event = new DetectorEvent();
+        if (!event.isEnabled()) return null;
+        event.begin();
+        return event;
+    }
+
+    static void endDetector(Object handle, String loader, boolean matched) {
+        DetectorEvent event = (DetectorEvent) handle;
+        event.end();
+        if (event.shouldCommit()) {
+            event.loader = loader;
+            event.matched = matched;
+            event.commit();
+        }
+    }
+
+    static Object beginScanBatch() {
+        ScanBatchEvent event = new ScanBatchEvent();
+        if (!event.isEnabled()) return null;
+        event.begin();
+        return event;
+    }
+
+    static void endScanBatch(Object handle, Path root, int[] statuses, long bytes) {
+        ScanBatchEvent event = (ScanBatchEvent) handle;
+        event.end();
+        if (event.shouldCommit()) {
+            event.root = root.toString();
+            event.detected = statuses[ScanResult.Status.DETECTED.ordinal()];
+            event.undetected = statuses[ScanResult.Status.UNDETECTED.ordinal()];
+            event.invalid = statuses[ScanResult.Status.INVALID_JSON.ordinal()];
+            event.ioErrors = statuses[ScanResult.Status.IO_ERROR.ordinal()];
+            event.limitExceeded = statuses[ScanResult.Status.LIMIT_EXCEEDED.ordinal()];
+            event.files = event.detected + event.undetected + event.invalid + event.ioErrors + event.limitExceeded;
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package me.andreasmelone.modloaderdetector.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Emitted for every json document that is turned into a tree by {@link me.andreasmelone.modloaderdetector.ModLoader}.
+ */
+@Name("me.andreasmelone.modloaderdetector.Parse")
+@Label("Version JSON Parse")
+@Category({"ModLoaderDetector", "Parsing"})
+@Description("Parsing a version json into a json tree")
+@Enabled(false)
+@StackTrace(false)
+public class ParseEvent extends Event {
+    @Label("Path")
+    @Description("The file the json was read from, or null if it was passed as a string")
+    public String path;
+
+    @Label("Length")
+    @Description("The length of the input in bytes for files and in chars for strings")
+    public long length;
+
+    @Label("Outcome")
+    @Description("ok, invalid json or the limit that was exceeded")
+    public String outcome;
+}
@@ -0,0 +1,39 @@
+package me.andreasmelone.modloaderdetector.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Emitted once per {@link me.andreasmelone.modloaderdetector.scan.VersionScanner#scan} call, summarizing the whole walk.
+ */
+@Name("me.andreasmelone.modloaderdetector.ScanBatch")
+@Label("Scan Batch")
+@Category({"ModLoaderDetector", "Scanning"})
+@Description("Scanning a directory tree of version jsons")
+@Enabled(false)
+@StackTrace(false)
+public class ScanBatchEvent extends Event {
+    @Label("Root")
+    public String root;
+
+    @Label("Files")
+    public int files;
+
+    @Label("Detected")
+    public int detected;
+
+    @Label("Undetected")
+    public int undetected;
+
+    @Label("Invalid JSON")
+    public int invalid;
+
+    @Label("I/O Errors")
+    public int ioErrors;
+
+    @Label("Limit Exceeded")
+    public int limitExceeded;
+
+    @Label("Total Size")
+    @DataAmount
+    public long bytes;
+}
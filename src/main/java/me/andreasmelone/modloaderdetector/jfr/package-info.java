@@ -0,0 +1,9 @@
+/**
+ * Java Flight Recorder events for detection and scanning.<p>
+ * All events are disabled by default, a disabled event only costs one short-lived allocation and its enabled check.
+ * They can be enabled e.g. on a running service with
+ * {@code jcmd <pid> JFR.start settings=profile +me.andreasmelone.modloaderdetector.Parse#enabled=true} or with a custom
+ * {@code .jfc} file that enables the {@code me.andreasmelone.modloaderdetector.*} events. On runtimes without the
+ * {@code jdk.jfr} module nothing is emitted, see {@link me.andreasmelone.modloaderdetector.jfr.Events}.
+ */
+package me.andreasmelone.modloaderdetector.jfr;
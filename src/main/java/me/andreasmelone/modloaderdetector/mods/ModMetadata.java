@@ -0,0 +1,70 @@
+package me.andreasmelone.modloaderdetector.mods;
+
+import me.andreasmelone.modloaderdetector.ModLoader;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+
+/**
+ * What a single metadata file inside a mod jar (e.g. {@code fabric.mod.json}) says about the environment the mod needs.
+ * The constraints are kept exactly as the mod declares them, e.g. {@code [1.20.1,1.21)} or {@code >=0.15.0}.
+ */
+public class ModMetadata {
+    @NotNull private final ModLoader loader;
+    @Nullable private final String minecraftConstraint;
+    @Nullable private final String loaderConstraint;
+
+    public ModMetadata(@NotNull ModLoader loader, @Nullable String minecraftConstraint, @Nullable String loaderConstraint) {
+        this.loader = loader;
+        this.minecraftConstraint = minecraftConstraint;
+        this.loaderConstraint = loaderConstraint;
+    }
+
+    /**
+     * @return the loader this metadata file is meant for
+     */
+    @NotNull
+    public ModLoader getLoader() {
+        return loader;
+    }
+
+    /**
+     * @return the declared minecraft version constraint, or {@code null} if the mod does not declare one
+     */
+    @Nullable
+    public String getMinecraftConstraint() {
+        return minecraftConstraint;
+    }
+
+    /**
+     * @return the declared loader version constraint, or {@code null} if the mod does not declare one
+     */
+    @Nullable
+    public String getLoaderConstraint() {
+        return loaderConstraint;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        ModMetadata that = (ModMetadata) o;
+        return loader == that.loader
+                && Objects.equals(minecraftConstraint, that.minecraftConstraint)
+                && Objects.equals(loaderConstraint, that.loaderConstraint);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(loader, minecraftConstraint, loaderConstraint);
+    }
+
+    @Override
+    public String toString() {
+        return "ModMetadata{" +
+                "loader=" + loader +
+                ", minecraftConstraint='" + minecraftConstraint + '\'' +
+                ", loaderConstraint='" + loaderConstraint + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,421 @@
+package me.andreasmelone.modloaderdetector.mods;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import me.andreasmelone.modloaderdetector.ModLoader;
+import me.andreasmelone.modloaderdetector.ModLoaderData;
+import me.andreasmelone.modloaderdetector.VersionType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static me.andreasmelone.modloaderdetector.util.Util.GSON;
+
+/**
+ * Infers the mod loader of an instance from its {@code mods} folder, for when there is no version json to look at
+ * (server packs, hand-assembled instances) or the version json cannot be trusted.<p>
+ * Each jar is opened with {@link ZipFile}, which only reads the central directory. Of the actual entries, only the
+ * small metadata files are inflated:
+ * <ul>
+ *     <li>{@code fabric.mod.json} - Fabric</li>
+ *     <li>{@code quilt.mod.json} - Quilt</li>
+ *     <li>{@code META-INF/neoforge.mods.toml} - NeoForge</li>
+ *     <li>{@code META-INF/mods.toml} - Forge, or NeoForge if the mod depends on {@code neoforge}</li>
+ *     <li>{@code mcmod.info} - legacy Forge</li>
+ * </ul>
+ * Jars are inspected in parallel.
+ */
+public class ModsFolderDetector {
+    private static final String FABRIC_MOD_JSON = "fabric.mod.json";
+    private static final String QUILT_MOD_JSON = "quilt.mod.json";
+    private static final String NEOFORGE_MODS_TOML = "META-INF/neoforge.mods.toml";
+    private static final String MODS_TOML = "META-INF/mods.toml";
+    private static final String MCMOD_INFO = "mcmod.info";
+
+    /**
+     * Metadata files are a few KiB at most, anything larger is not worth inflating.
+     */
+    private static final long MAX_METADATA_SIZE = 1024 * 1024;
+    private static final String SEGMENT_BOUNDARY = "[.\\-]|(?<=\\d)(?=\\D)|(?<=\\D)(?=\\d)";
+    private static final Pattern SNAPSHOT = Pattern.compile("\\d{2}w\\d{2}[a-z]|.*-(pre|rc|snapshot).*");
+
+    private ModsFolderDetector() {}
+
+    /**
+     * Attempts to identify the mod loader from the jars in a mods folder.<p>
+     * The loader is the one most jars are written for. Quilt wins over Fabric as soon as a single Quilt mod is present,
+     * because Quilt also loads Fabric mods but not the other way around. The Minecraft and loader versions are the
+     * highest lower bounds the mods for that loader declare, as that is the oldest version that satisfies all of them.
+     *
+     * @param modsFolder the mods folder
+     * @return an optional with the modloader data, or empty if no jar contains usable metadata or none of them
+     * declare which Minecraft version they need
+     * @throws IOException if the folder cannot be listed
+     */
+    @NotNull
+    public static Optional<ModLoaderData> findModLoader(@NotNull Path modsFolder) throws IOException {
+        List<Path> jars = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(modsFolder, "*.jar")) {
+            for (Path jar : stream) {
+                if (Files.isRegularFile(jar)) jars.add(jar);
+            }
+        }
+
+        List<List<ModMetadata>> perJar = jars.parallelStream()
+                .map(ModsFolderDetector::inspectJarQuietly)
+                .filter(metadata -> !metadata.isEmpty())
+                .collect(Collectors.toList());
+        return combine(perJar);
+    }
+
+    /**
+     * Reads the loader metadata files of a single mod jar. A jar written for several loaders yields several entries.
+     *
+     * @param jar the mod jar
+     * @return the metadata found, empty if the jar contains none
+     * @throws IOException if the jar is not a valid zip file or cannot be read
+     */
+    @NotNull
+    public static List<ModMetadata> inspectJar(@NotNull Path jar) throws IOException {
+        List<ModMetadata> metadata = new ArrayList<>();
+        try (ZipFile zip = new ZipFile(jar.toFile())) {
+            JsonObject fabric = readJson(zip, FABRIC_MOD_JSON, JsonObject.class);
+            if (fabric != null) metadata.add(fromFabric(fabric));
+
+            JsonObject quilt = readJson(zip, QUILT_MOD_JSON, JsonObject.class);
+            if (quilt != null) metadata.add(fromQuilt(quilt));
+
+            ModsToml neoforge = readToml(zip, NEOFORGE_MODS_TOML);
+            if (neoforge != null) metadata.add(fromModsToml(neoforge, ModLoader.NEOFORGE));
+
+            ModsToml forge = readToml(zip, MODS_TOML);
+            if (forge != null) {
+                // NeoForge for 1.20.1 to 1.20.4 still used mods.toml, only the dependency gives it away
+                ModLoader loader = forge.getDependencyRange("neoforge") != null ? ModLoader.NEOFORGE : ModLoader.FORGE;
+                metadata.add(fromModsToml(forge, loader));
+            }
+
+            JsonElement mcmod = readJson(zip, MCMOD_INFO, JsonElement.class);
+            if (mcmod != null) metadata.add(fromMcmodInfo(mcmod));
+        }
+        return metadata;
+    }
+
+    private static List<ModMetadata> inspectJarQuietly(Path jar) {
+        try {
+            return inspectJar(jar);
+        } catch (Exception e) {
+            // a broken or half-downloaded jar should not stop us from looking at the others
+            return Collections.emptyList();
+        }
+    }
+
+    private static Optional<ModLoaderData> combine(List<List<ModMetadata>> perJar) {
+        Map<ModLoader, Integer> exclusive = new EnumMap<>(ModLoader.class);
+        Map<ModLoader, Integer> total = new EnumMap<>(ModLoader.class);
+        for (List<ModMetadata> jar : perJar) {
+            Set<ModLoader> loaders = EnumSet.noneOf(ModLoader.class);
+            for (ModMetadata metadata : jar) loaders.add(metadata.getLoader());
+            for (ModLoader loader : loaders) {
+                total.merge(loader, 1, Integer::sum);
+                if (loaders.size() == 1) exclusive.merge(loader, 1, Integer::sum);
+            }
+        }
+        if (total.isEmpty()) return Optional.empty();
+
+        // jars that only support one loader are the better hint, multi-loader jars only break ties
+        ModLoader loader = null;
+        for (ModLoader candidate : total.keySet()) {
+            if (loader == null || compareVotes(candidate, loader, exclusive, total) > 0) loader = candidate;
+        }
+        if (loader == ModLoader.FABRIC && total.containsKey(ModLoader.QUILT)) loader = ModLoader.QUILT;
+
+        String minecraftVersion = null;
+        String loaderVersion = null;
+        for (List<ModMetadata> jar : perJar) {
+            for (ModMetadata metadata : jar) {
+                // Quilt loads Fabric mods, so their minecraft constraints count too, their fabricloader ones do not
+                boolean matches = metadata.getLoader() == loader
+                        || (loader == ModLoader.QUILT && metadata.getLoader() == ModLoader.FABRIC);
+                if (!matches) continue;
+
+                minecraftVersion = max(minecraftVersion, lowerBound(metadata.getMinecraftConstraint()));
+                if (metadata.getLoader() == loader) {
+                    loaderVersion = max(loaderVersion, lowerBound(metadata.getLoaderConstraint()));
+                }
+            }
+        }
+        if (minecraftVersion == null) return Optional.empty();
+
+        VersionType type = SNAPSHOT.matcher(minecraftVersion).matches() ? VersionType.SNAPSHOT : VersionType.RELEASE;
+        return Optional.of(new ModLoaderData(minecraftVersion, type, loaderVersion, loader));
+    }
+
+    private static int compareVotes(ModLoader a, ModLoader b, Map<ModLoader, Integer> exclusive, Map<ModLoader, Integer> total) {
+        int result = Integer.compare(exclusive.getOrDefault(a, 0), exclusive.getOrDefault(b, 0));
+        if (result != 0) return result;
+        return Integer.compare(total.getOrDefault(a, 0), total.getOrDefault(b, 0));
+    }
+
+    private static ModMetadata fromFabric(JsonObject json) {
+        JsonObject depends = json.has("depends") && json.get("depends").isJsonObject()
+                ? json.getAsJsonObject("depends") : new JsonObject();
+        return new ModMetadata(ModLoader.FABRIC,
+                constraint(depends.get("minecraft")),
+                constraint(depends.get("fabricloader")));
+    }
+
+    private static ModMetadata fromQuilt(JsonObject json) {
+        String minecraft = null;
+        String loader = null;
+        JsonElement quiltLoader = json.get("quilt_loader");
+        if (quiltLoader != null && quiltLoader.isJsonObject()) {
+            JsonElement depends = quiltLoader.getAsJsonObject().get("depends");
+            if (depends != null && depends.isJsonArray()) {
+                for (JsonElement dependency : depends.getAsJsonArray()) {
+                    // a plain string means "any version of this mod"
+                    if (!dependency.isJsonObject()) continue;
+                    JsonObject obj = dependency.getAsJsonObject();
+                    JsonElement id = obj.get("id");
+                    if (id == null || !id.isJsonPrimitive()) continue;
+
+                    if (id.getAsString().equals("minecraft")) minecraft = constraint(obj.get("versions"));
+                    if (id.getAsString().equals("quilt_loader")) loader = constraint(obj.get("versions"));
+                }
+            }
+        }
+        return new ModMetadata(ModLoader.QUILT, minecraft, loader);
+    }
+
+    private static ModMetadata fromModsToml(ModsToml toml, ModLoader loader) {
+        String loaderModId = loader == ModLoader.NEOFORGE ? "neoforge" : "forge";
+        return new ModMetadata(loader, toml.getDependencyRange("minecraft"), toml.getDependencyRange(loaderModId));
+    }
+
+    private static ModMetadata fromMcmodInfo(JsonElement json) {
+        // either a plain array of mods or, in version 2 of the format, {"modListVersion": 2, "modList": [...]}
+        JsonArray mods = null;
+        if (json.isJsonArray()) {
+            mods = json.getAsJsonArray();
+        } else if (json.isJsonObject() && json.getAsJsonObject().has("modList")
+                && json.getAsJsonObject().get("modList").isJsonArray()) {
+            mods = json.getAsJsonObject().getAsJsonArray("modList");
+        }
+
+        String minecraft = null;
+        if (mods != null) {
+            for (JsonElement mod : mods) {
+                if (!mod.isJsonObject()) continue;
+                JsonElement mcversion = mod.getAsJsonObject().get("mcversion");
+                // "${mcversion}" is the template placeholder, left in by mods whose build did not expand it
+                if (mcversion != null && mcversion.isJsonPrimitive() && !mcversion.getAsString().isEmpty()
+                        && !mcversion.getAsString().contains("${")) {
+                    minecraft = mcversion.getAsString();
+                    break;
+                }
+            }
+        }
+        // mcmod.info has no field for the required forge version
+        return new ModMetadata(ModLoader.LEGACY_FORGE, minecraft, null);
+    }
+
+    /**
+     * Fabric and Quilt allow a list of alternatives instead of a single version predicate,
+     * those are joined with {@code ||} so they can be kept as one string.
+     */
+    private static String constraint(JsonElement element) {
+        if (element == null) return null;
+        if (element.isJsonPrimitive()) return element.getAsString();
+        if (element.isJsonArray()) {
+            List<String> alternatives = new ArrayList<>();
+            for (JsonElement alternative : element.getAsJsonArray()) {
+                if (alternative.isJsonPrimitive()) alternatives.add(alternative.getAsString());
+            }
+            return alternatives.isEmpty() ? null : String.join(" || ", alternatives);
+        }
+        if (element.isJsonObject() && element.getAsJsonObject().has("any")) {
+            return constraint(element.getAsJsonObject().get("any"));
+        }
+        return null;
+    }
+
+    /**
+     * Extracts the smallest version a constraint accepts. Understands maven ranges as used by Forge and NeoForge
+     * ({@code [47,)}, {@code [1.20.1,1.21)}) and the semver predicates used by Fabric and Quilt
+     * ({@code >=0.15.0}, {@code ~1.20.1}, {@code 1.20.x}).
+     *
+     * @param constraint the version constraint
+     * @return the lower bound or {@code null} if the constraint does not have an inclusive one, e.g. {@code *},
+     * {@code <1.21} or {@code (1.19,1.20]}, whose smallest accepted version cannot be named
+     */
+    @Nullable
+    static String lowerBound(@Nullable String constraint) {
+        if (constraint == null) return null;
+
+        String lowest = null;
+        for (String alternative : constraint.split("\\|\\|")) {
+            String bound = lowerBoundOf(alternative.trim());
+            // any alternative without a lower bound means the whole constraint has none
+            if (bound == null) return null;
+            if (lowest == null || compareVersions(bound, lowest) < 0) lowest = bound;
+        }
+        return lowest;
+    }
+
+    private static String lowerBoundOf(String constraint) {
+        if (constraint.isEmpty()) return null;
+
+        char first = constraint.charAt(0);
+        if (first == '[' || first == '(') {
+            int end = constraint.length();
+            for (int i = 1; i < constraint.length(); i++) {
+                char c = constraint.charAt(i);
+                if (c == ',' || c == ']' || c == ')') {
+                    end = i;
+                    break;
+                }
+            }
+            String lower = constraint.substring(1, end).trim();
+            return lower.isEmpty() || first == '(' ? null : lower;
+        }
+
+        // ">=1.20 <1.21" is a valid fabric predicate, the first part is the lower bound
+        String predicate = constraint.split("\\s+")[0];
+        if (predicate.startsWith("<")) return null;
+        if (predicate.startsWith(">") && !predicate.startsWith(">=")) return null;
+        int start = 0;
+        while (start < predicate.length() && ">=~^".indexOf(predicate.charAt(start)) >= 0) start++;
+
+        String version = predicate.substring(start);
+        if (version.endsWith(".x") || version.endsWith(".X") || version.endsWith(".*")) {
+            version = version.substring(0, version.length() - 2);
+        }
+        return version.isEmpty() || version.equals("*") ? null : version;
+    }
+
+    private static String max(String current, String candidate) {
+        if (candidate == null) return current;
+        if (current == null || compareVersions(candidate, current) > 0) return candidate;
+        return current;
+    }
+
+    /**
+     * Compares two versions like semver does: build metadata after {@code +} is ignored, the part before the first
+     * {@code -} is compared segment by segment, and a version with a pre-release suffix ({@code 1.20.5-pre1}) sorts
+     * before the same version without one. Numeric segments are compared by value, everything else alphabetically.
+     */
+    static int compareVersions(String a, String b) {
+        String[] splitA = a.split("\\+", 2)[0].split("-", 2);
+        String[] splitB = b.split("\\+", 2)[0].split("-", 2);
+        int result = compareSegments(splitA[0], splitB[0]);
+        if (result != 0) return result;
+
+        if (splitA.length == 1 || splitB.length == 1) return Integer.compare(splitB.length, splitA.length);
+        return compareSegments(splitA[1], splitB[1]);
+    }
+
+    private static int compareSegments(String a, String b) {
+        // digits and letters are separate segments as well, so that pre2 sorts before pre10
+        String[] partsA = a.split(SEGMENT_BOUNDARY);
+        String[] partsB = b.split(SEGMENT_BOUNDARY);
+        for (int i = 0; i < Math.min(partsA.length, partsB.length); i++) {
+            int result;
+            try {
+                result = Long.compare(Long.parseLong(partsA[i]), Long.parseLong(partsB[i]));
+            } catch (NumberFormatException e) {
+                result = partsA[i].compareTo(partsB[i]);
+            }
+            if (result != 0) return result;
+        }
+        return Integer.compare(partsA.length, partsB.length);
+    }
+
+    private static <T> T readJson(ZipFile zip, String name, Class<T> type) throws IOException {
+        try (Reader reader = openEntry(zip, name)) {
+            if (reader == null) return null;
+            return GSON.fromJson(reader, type);
+        } catch (RuntimeException e) {
+            // plenty of old mcmod.info files are not valid json, treat them like missing metadata
+            return null;
+        }
+    }
+
+    private static ModsToml readToml(ZipFile zip, String name) throws IOException {
+        try (Reader reader = openEntry(zip, name)) {
+            if (reader == null) return null;
+            return ModsToml.read(reader);
+        } catch (MetadataTooLargeException e) {
+            return null;
+        }
+    }
+
+    private static Reader openEntry(ZipFile zip, String name) throws IOException {
+        ZipEntry entry = zip.getEntry(name);
+        if (entry == null || entry.isDirectory() || entry.getSize() > MAX_METADATA_SIZE) return null;
+        // the declared size comes from the central directory and can be a lie, so the inflated stream is capped too
+        InputStream in = new BoundedInputStream(zip.getInputStream(entry), MAX_METADATA_SIZE);
+        return new InputStreamReader(in, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Fails once more than the allowed amount of bytes has been read, instead of silently truncating the metadata.
+     */
+    private static class BoundedInputStream extends FilterInputStream {
+        private final long max;
+        private long read;
+
+        private BoundedInputStream(InputStream in, long max) {
+            super(in);
+            this.max = max;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) count(1);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) count(n);
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count(skipped);
+            return skipped;
+        }
+
+        private void count(long n) throws MetadataTooLargeException {
+            read += n;
+            if (read > max) throw new MetadataTooLargeException();
+        }
+    }
+
+    private static class MetadataTooLargeException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        private MetadataTooLargeException() {
+            super("Metadata entry inflates to more than " + MAX_METADATA_SIZE + " bytes");
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package me.andreasmelone.modloaderdetector.mods;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A deliberately tiny reader for {@code mods.toml} and {@code neoforge.mods.toml}.<p>
+ * It is not a TOML parser. It only understands the flat {@code key = "value"} lines the Forge and NeoForge MDKs
+ * generate and remembers which {@code [[table]]} they belong to, which is all that is needed to read the dependency
+ * entries. Everything else, including multi-line strings, is skipped.
+ */
+class ModsToml {
+    private final Map<String, String> topLevel = new HashMap<>();
+    private final List<Map<String, String>> dependencies = new ArrayList<>();
+
+    private ModsToml() {}
+
+    /**
+     * @return the keys defined before the first table, e.g. {@code modLoader} and {@code loaderVersion}
+     */
+    Map<String, String> getTopLevel() {
+        return topLevel;
+    }
+
+    /**
+     * @return one map per {@code [[dependencies.<modid>]]} table, in file order
+     */
+    List<Map<String, String>> getDependencies() {
+        return dependencies;
+    }
+
+    /**
+     * Finds the version range of the first dependency on the given mod id.
+     *
+     * @param modId the mod id, e.g. {@code minecraft}
+     * @return the declared {@code versionRange} or {@code null} if there is no such dependency
+     */
+    String getDependencyRange(String modId) {
+        for (Map<String, String> dependency : dependencies) {
+            if (modId.equalsIgnoreCase(dependency.get("modId"))) return dependency.get("versionRange");
+        }
+        return null;
+    }
+
+    static ModsToml read(Reader reader) throws IOException {
+        ModsToml toml = new ModsToml();
+        BufferedReader lines = new BufferedReader(reader);
+        Map<String, String> current = toml.topLevel;
+        String multiLineEnd = null;
+
+        String line;
+        while ((line = lines.readLine()) != null) {
+            if (multiLineEnd != null) {
+                if (line.contains(multiLineEnd)) multiLineEnd = null;
+                continue;
+            }
+
+            line = stripComment(line).trim();
+            if (line.isEmpty()) continue;
+
+            if (line.startsWith("[")) {
+                String table = line.replace("[", "").replace("]", "").trim();
+                if (line.startsWith("[[") && table.startsWith("dependencies.")) {
+                    current = new HashMap<>();
+                    toml.dependencies.add(current);
+                } else {
+                    // [[mods]], [mc-publish] and whatever else, we do not need any of it
+                    current = new HashMap<>();
+                }
+                continue;
+            }
+
+            int equals = line.indexOf('=');
+            if (equals <= 0) continue;
+            String key = line.substring(0, equals).trim();
+            String value = line.substring(equals + 1).trim();
+
+            if (value.startsWith("\"\"\"") || value.startsWith("'''")) {
+                String quote = value.substring(0, 3);
+                if (value.length() < 6 || !value.endsWith(quote)) multiLineEnd = quote;
+                continue;
+            }
+            current.put(key, unquote(value));
+        }
+        return toml;
+    }
+
+    private static String stripComment(String line) {
+        char quote = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quote != 0) {
+                if (c == quote) quote = 0;
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '#') {
+                return line.substring(0, i);
+            }
+        }
+        return line;
+    }
+
+    private static String unquote(String value) {
+        if (value.length() >= 2) {
+            char first = value.charAt(0);
+            if ((first == '"' || first == '\'') && value.charAt(value.length() - 1) == first) {
+                return value.substring(1, value.length() - 1);
+            }
+        }
+        return value;
+    }
+}
@@ -0,0 +1,157 @@
+package me.andreasmelone.modloaderdetector.scan;
+
+import me.andreasmelone.modloaderdetector.DetectionLimits;
+import me.andreasmelone.modloaderdetector.LimitExceededException;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers the {@link ScanResult} of every file a {@link VersionScanner} inspected, so asking again about an
+ * unchanged file costs a single stat call instead of a read and a parse.<p>
+ * A cached result is reused as long as the file's size, modification time and file key (inode where available) are
+ * the same as when it was scanned. Read errors and results that ran out of time are never cached. The least recently
+ * used entries are dropped once the cache is full.
+ * This class is thread-safe.
+ */
+public class ScanCache {
+    private final VersionScanner scanner;
+    private final Map<Path, Entry> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param scanner    the scanner that inspects files which are not cached or have changed
+     * @param maxEntries how many results to keep at most
+     */
+    public ScanCache(@NotNull VersionScanner scanner, int maxEntries) {
+        if (maxEntries < 1) throw new IllegalArgumentException("maxEntries must be at least 1, got " + maxEntries);
+        this.scanner = scanner;
+        this.entries = new LinkedHashMap<Path, Entry>(16, 0.75f, true) {
+            // the inherited LinkedHashMap.Entry would shadow our Entry in here
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, ScanCache.Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached result for the file if it did not change, or scans it otherwise.
+     *
+     * @param file the json file
+     * @return the scan result, see {@link VersionScanner#scanFile(Path)}
+     */
+    @NotNull
+    public ScanResult scanFile(@NotNull Path file) {
+        Path key = file.toAbsolutePath().normalize();
+        BasicFileAttributes attrs;
+        try {
+            attrs = Files.readAttributes(key, BasicFileAttributes.class);
+        } catch (IOException e) {
+            invalidate(key);
+            misses.incrementAndGet();
+            return new ScanResult(file, ScanResult.Status.IO_ERROR, null, e, 0, 0);
+        }
+
+        Entry cached;
+        synchronized (entries) {
+            cached = entries.get(key);
+        }
+        if (cached != null && cached.matches(attrs)) {
+            hits.incrementAndGet();
+            return cached.result;
+        }
+
+        // the attributes are taken before reading, so a file that changes while it is read is scanned again next time
+        misses.incrementAndGet();
+        ScanResult result = scanner.scanFile(file);
+        if (isCacheable(result)) {
+            synchronized (entries) {
+                entries.put(key, new Entry(attrs, result));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Read errors and a used up time budget depend on the moment of the scan rather than on the file, so the next
+     * request should try again.
+     */
+    private static boolean isCacheable(ScanResult result) {
+        if (result.getStatus() == ScanResult.Status.IO_ERROR) return false;
+        return !(result.getError() instanceof LimitExceededException)
+                || ((LimitExceededException) result.getError()).getLimit() != DetectionLimits.Limit.TIME;
+    }
+
+    /**
+     * Forgets the cached result of a file.
+     *
+     * @param file the json file
+     */
+    public void invalidate(@NotNull Path file) {
+        synchronized (entries) {
+            entries.remove(file.toAbsolutePath().normalize());
+        }
+    }
+
+    /**
+     * Forgets all cached results.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * @return the amount of cached results
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * @return how many lookups were answered from the cache
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return how many lookups had to scan the file
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private static class Entry {
+        private final long size;
+        private final FileTime lastModified;
+        private final Object fileKey;
+        private final ScanResult result;
+
+        private Entry(BasicFileAttributes attrs, ScanResult result) {
+            this.size = attrs.size();
+            this.lastModified = attrs.lastModifiedTime();
+            this.fileKey = attrs.fileKey();
+            this.result = result;
+        }
+
+        private boolean matches(BasicFileAttributes attrs) {
+            return size == attrs.size()
+                    && lastModified.equals(attrs.lastModifiedTime())
+                    && Objects.equals(fileKey, attrs.fileKey());
+        }
+    }
+}
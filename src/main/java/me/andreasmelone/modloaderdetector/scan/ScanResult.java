@@ -0,0 +1,126 @@
+package me.andreasmelone.modloaderdetector.scan;
+
+import me.andreasmelone.modloaderdetector.DetectionLimits;
+import me.andreasmelone.modloaderdetector.ModLoaderData;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The outcome of scanning a single file with a {@link VersionScanner}.
+ */
+public class ScanResult {
+    /**
+     * What happened while scanning a file.
+     */
+    public enum Status {
+        /**
+         * The file was parsed and a loader (or vanilla) was identified.
+         */
+        DETECTED,
+        /**
+         * The file was valid json, but contained no data to identify the loader or version.
+         */
+        UNDETECTED,
+        /**
+         * The file is not valid json.
+         */
+        INVALID_JSON,
+        /**
+         * The file could not be read.
+         */
+        IO_ERROR,
+        /**
+         * Detection was stopped early because the file exceeds the scanner's {@link DetectionLimits}.
+         */
+        LIMIT_EXCEEDED
+    }
+
+    @NotNull private final Path path;
+    @NotNull private final Status status;
+    @Nullable private final ModLoaderData data;
+    @Nullable private final Exception error;
+    private final long bytes;
+    private final long durationNanos;
+
+    public ScanResult(@NotNull Path path, @NotNull Status status, @Nullable ModLoaderData data,
+                      @Nullable Exception error, long bytes, long durationNanos) {
+        this.path = path;
+        this.status = status;
+        this.data = data;
+        this.error = error;
+        this.bytes = bytes;
+        this.durationNanos = durationNanos;
+    }
+
+    @NotNull
+    public Path getPath() {
+        return path;
+    }
+
+    @NotNull
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @return the detected data, only present if the status is {@link Status#DETECTED}
+     */
+    @NotNull
+    public Optional<ModLoaderData> getData() {
+        return Optional.ofNullable(data);
+    }
+
+    /**
+     * @return the exception that caused an {@link Status#INVALID_JSON}, {@link Status#IO_ERROR} or
+     * {@link Status#LIMIT_EXCEEDED} status, if any
+     */
+    @Nullable
+    public Exception getError() {
+        return error;
+    }
+
+    /**
+     * @return the size of the file in bytes
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return the time it took to read and inspect the file, in nanoseconds
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        ScanResult that = (ScanResult) o;
+        // the duration and the exception instance differ between two scans of the same file, they are not part of the outcome
+        return bytes == that.bytes
+                && path.equals(that.path)
+                && status == that.status
+                && Objects.equals(data, that.data);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(path, status, data, bytes);
+    }
+
+    @Override
+    public String toString() {
+        return "ScanResult{" +
+                "path=" + path +
+                ", status=" + status +
+                ", data=" + data +
+                ", bytes=" + bytes +
+                ", durationNanos=" + durationNanos +
+                '}';
+    }
+}
@@ -0,0 +1,150 @@
+package me.andreasmelone.modloaderdetector.scan;
+
+import com.google.gson.JsonSyntaxException;
+import me.andreasmelone.modloaderdetector.DetectionLimits;
+import me.andreasmelone.modloaderdetector.LimitExceededException;
+import me.andreasmelone.modloaderdetector.ModLoader;
+import me.andreasmelone.modloaderdetector.ModLoaderData;
+import me.andreasmelone.modloaderdetector.jfr.Events;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Walks a directory tree (e.g. {@code .minecraft/versions}) and runs
+ * {@link ModLoader#findModLoader(Path, DetectionLimits)} on every {@code .json} file it finds.
+ */
+public class VersionScanner {
+    private final int maxDepth;
+    private final DetectionLimits limits;
+
+    /**
+     * Creates a scanner that descends into all subdirectories and does not limit the files it reads.
+     */
+    public VersionScanner() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param maxDepth how many directory levels to descend, {@code 1} only scans the files directly inside the root
+     */
+    public VersionScanner(int maxDepth) {
+        this(maxDepth, DetectionLimits.UNLIMITED);
+    }
+
+    /**
+     * @param maxDepth how many directory levels to descend, {@code 1} only scans the files directly inside the root
+     * @param limits   the limits every single file is read and inspected with
+     */
+    public VersionScanner(int maxDepth, @NotNull DetectionLimits limits) {
+        if (maxDepth < 1) throw new IllegalArgumentException("maxDepth must be at least 1, got " + maxDepth);
+        this.maxDepth = maxDepth;
+        this.limits = limits;
+    }
+
+    /**
+     * Scans every json file below the given root and hands each result to the consumer as soon as it is available.
+     * Nothing is retained by the scanner, so this is the variant to use for very large trees.
+     *
+     * @param root     the directory to scan
+     * @param consumer receives one {@link ScanResult} per json file
+     * @throws IOException if the root itself cannot be walked; unreadable files and subdirectories are skipped or reported
+     *                     as {@link ScanResult.Status#IO_ERROR} instead
+     */
+    public void scan(@NotNull Path root, @NotNull Consumer<ScanResult> consumer) throws IOException {
+        Object event = Events.beginScanBatch();
+        // counting is cheap enough to always do, it is only reported if the event is enabled
+        int[] statuses = new int[ScanResult.Status.values().length];
+        long[] bytes = new long[1];
+        try {
+            Files.walkFileTree(root, EnumSet.noneOf(FileVisitOption.class), maxDepth, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (!file.getFileName().toString().endsWith(".json")) return FileVisitResult.CONTINUE;
+                    if (attrs.isRegularFile()) {
+                        report(scanFile(file, attrs.size()));
+                    } else if (attrs.isSymbolicLink()) {
+                        // links are not followed while walking, but a linked version json is still a version json
+                        report(scanFile(file));
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException exc) throws IOException {
+                    if (file.equals(root)) throw exc;
+                    // a directory we are not allowed to enter should not abort the whole scan,
+                    // a json file we cannot even stat is still reported
+                    Path name = file.getFileName();
+                    if (name != null && name.toString().endsWith(".json")) {
+                        report(new ScanResult(file, ScanResult.Status.IO_ERROR, null, exc, 0, 0));
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                private void report(ScanResult result) {
+                    statuses[result.getStatus().ordinal()]++;
+                    bytes[0] += result.getBytes();
+                    consumer.accept(result);
+                }
+            });
+        } finally {
+            Events.endScanBatch(event, root, statuses, bytes[0]);
+        }
+    }
+
+    /**
+     * Scans every json file below the given root and collects the results.
+     *
+     * @param root the directory to scan
+     * @return one {@link ScanResult} per json file
+     * @throws IOException if the root itself cannot be walked
+     * @see #scan(Path, Consumer)
+     */
+    @NotNull
+    public List<ScanResult> scan(@NotNull Path root) throws IOException {
+        List<ScanResult> results = new ArrayList<>();
+        scan(root, results::add);
+        return results;
+    }
+
+    /**
+     * Reads and inspects a single file. This never throws, failures are reported through the result's status.
+     *
+     * @param file the json file
+     * @return the scan result
+     */
+    @NotNull
+    public ScanResult scanFile(@NotNull Path file) {
+        long size;
+        try {
+            size = Files.size(file);
+        } catch (IOException e) {
+            return new ScanResult(file, ScanResult.Status.IO_ERROR, null, e, 0, 0);
+        }
+        return scanFile(file, size);
+    }
+
+    private ScanResult scanFile(Path file, long size) {
+        long start = System.nanoTime();
+        try {
+            Optional<ModLoaderData> data = ModLoader.findModLoader(file, limits);
+            return new ScanResult(file,
+                    data.isPresent() ? ScanResult.Status.DETECTED : ScanResult.Status.UNDETECTED,
+                    data.orElse(null), null, size, System.nanoTime() - start);
+        } catch (JsonSyntaxException e) {
+            return new ScanResult(file, ScanResult.Status.INVALID_JSON, null, e, size, System.nanoTime() - start);
+        } catch (IOException e) {
+            return new ScanResult(file, ScanResult.Status.IO_ERROR, null, e, size, System.nanoTime() - start);
+        } catch (LimitExceededException e) {
+            return new ScanResult(file, ScanResult.Status.LIMIT_EXCEEDED, null, e, size, System.nanoTime() - start);
+        }
+    }
+}
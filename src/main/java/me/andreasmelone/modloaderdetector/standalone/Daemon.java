@@ -0,0 +1,349 @@
+package me.andreasmelone.modloaderdetector.standalone;
+
+import com.google.gson.*;
+import me.andreasmelone.modloaderdetector.DetectionLimits;
+import me.andreasmelone.modloaderdetector.ModLoaderData;
+import me.andreasmelone.modloaderdetector.scan.ScanCache;
+import me.andreasmelone.modloaderdetector.scan.ScanResult;
+import me.andreasmelone.modloaderdetector.scan.VersionScanner;
+
+import java.io.*;
+import java.lang.reflect.InvocationTargetException;
+import java.net.*;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Keeps a JVM with warm caches around so launchers do not pay JVM startup and a cold parse for every lookup.<p>
+ * The daemon listens on a Unix domain socket (Java 16 and newer) or a loopback port and speaks JSON lines: every request is one json object
+ * on one line, every response as well. A request lists the version jsons to detect:
+ * <pre>{@code
+ * {"id": 1, "paths": ["/home/me/.minecraft/versions/1.20.1-forge-47.2.0/1.20.1-forge-47.2.0.json"]}
+ * }</pre>
+ * The response carries the same id and one result per path, in the same order:
+ * <pre>{@code
+ * {"id":1,"results":[{"path":"...","status":"DETECTED","loader":"FORGE","loaderVersion":"47.2.0",
+ *   "minecraftVersion":"1.20.1","minecraftVersionType":"release"}]}
+ * }</pre>
+ * A request that cannot be understood is answered with {@code {"id":...,"error":"..."}}. Paths must be absolute, the
+ * daemon's working directory means nothing to the client. Results are cached per file and reused until the file
+ * changes, see {@link ScanCache}. Files are inspected with {@link DetectionLimits#DEFAULT}.<p>
+ * Requests are limited to {@value #MAX_REQUEST_CHARS} chars and {@value #MAX_PATHS_PER_REQUEST} paths, and at most
+ * {@value #MAX_CONNECTIONS} connections are served at once; further connections are answered with an error and closed.
+ */
+public class Daemon implements Closeable {
+    private static final Gson JSON_LINES = new GsonBuilder().disableHtmlEscaping().serializeNulls().create();
+    private static final int MAX_CACHED_RESULTS = 100_000;
+    private static final int MAX_REQUEST_CHARS = 1024 * 1024;
+    private static final int MAX_PATHS_PER_REQUEST = 1024;
+    private static final int MAX_CONNECTIONS = 64;
+
+    private final ServerSocketChannel server;
+    private final SocketAddress address;
+    private final Path socketFile;
+    private final Object socketFileKey;
+    private final Semaphore connectionPermits = new Semaphore(MAX_CONNECTIONS);
+    private final ScanCache cache = new ScanCache(
+            new VersionScanner(Integer.MAX_VALUE, DetectionLimits.DEFAULT), MAX_CACHED_RESULTS);
+    private final ExecutorService connections = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "modloaderdetector-daemon-connection");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Daemon(ServerSocketChannel server, SocketAddress address, Path socketFile, Object socketFileKey) {
+        this.server = server;
+        this.address = address;
+        this.socketFile = socketFile;
+        this.socketFileKey = socketFileKey;
+    }
+
+    /**
+     * Binds a daemon to a Unix domain socket. A stale socket left behind at that path, e.g. by a daemon that was
+     * killed, is replaced. Anything else at that path, including a socket another daemon still listens on, is left
+     * alone and binding fails.
+     *
+     * @param socketFile where to create the socket
+     * @return the bound daemon, call {@link #serve()} to start answering requests
+     * @throws BindException if the path is in use
+     * @throws IOException   if the socket cannot be created
+     */
+    public static Daemon bindUnixSocket(Path socketFile) throws IOException {
+        SocketAddress address = unixSocketAddress(socketFile);
+        BasicFileAttributes existing = attributesIfExists(socketFile);
+        if (existing != null) {
+            // regular files, directories and links are never sockets, they must not be deleted on our behalf
+            if (!existing.isOther() || isListening(address)) {
+                throw new BindException("Address already in use: " + socketFile);
+            }
+            Files.delete(socketFile);
+        }
+
+        ServerSocketChannel server = openUnixServerChannel();
+        try {
+            server.bind(address);
+            BasicFileAttributes created = attributesIfExists(socketFile);
+            return new Daemon(server, address, socketFile, created == null ? null : created.fileKey());
+        } catch (IOException e) {
+            server.close();
+            throw e;
+        }
+    }
+
+    private static BasicFileAttributes attributesIfExists(Path file) throws IOException {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    private static boolean isListening(SocketAddress address) {
+        try {
+            SocketChannel.open(address).close();
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // the library itself runs on Java 8, Unix domain sockets only exist since Java 16, so they are looked up reflectively
+
+    private static SocketAddress unixSocketAddress(Path socketFile) throws IOException {
+        try {
+            return (SocketAddress) Class.forName("java.net.UnixDomainSocketAddress")
+                    .getMethod("of", Path.class)
+                    .invoke(null, socketFile);
+        } catch (ReflectiveOperationException e) {
+            throw unixSocketsUnavailable(e);
+        }
+    }
+
+    private static ServerSocketChannel openUnixServerChannel() throws IOException {
+        try {
+            return (ServerSocketChannel) ServerSocketChannel.class.getMethod("open", ProtocolFamily.class)
+                    .invoke(null, StandardProtocolFamily.valueOf("UNIX"));
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+            throw unixSocketsUnavailable(e.getCause());
+        } catch (ReflectiveOperationException | IllegalArgumentException e) {
+            throw unixSocketsUnavailable(e);
+        }
+    }
+
+    private static IOException unixSocketsUnavailable(Throwable cause) {
+        return new IOException("Unix domain sockets need Java 16 or newer, use a loopback port instead", cause);
+    }
+
+    /**
+     * Binds a daemon to a port on the loopback interface, so it is not reachable from other machines.<p>
+     * Unlike a Unix domain socket, whose file permissions decide who may connect, a loopback port is open to every
+     * user on this machine, and each of them can have any absolute path inspected with the daemon's file permissions.
+     * Prefer {@link #bindUnixSocket(Path)} on shared machines.
+     *
+     * @param port the port, {@code 0} picks a free one, see {@link #getAddress()}
+     * @return the bound daemon, call {@link #serve()} to start answering requests
+     * @throws IOException if the port cannot be bound
+     */
+    public static Daemon bindLoopback(int port) throws IOException {
+        ServerSocketChannel server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        return new Daemon(server, server.getLocalAddress(), null, null);
+    }
+
+    /**
+     * @return the address the daemon is listening on
+     */
+    public SocketAddress getAddress() {
+        return address;
+    }
+
+    /**
+     * Accepts connections until the daemon is closed. Every connection is served on its own thread and may send any
+     * amount of requests. Connections beyond the limit are answered with an error and closed right away.
+     *
+     * @throws IOException if accepting fails for any other reason than the daemon being closed
+     */
+    public void serve() throws IOException {
+        while (server.isOpen()) {
+            SocketChannel client;
+            try {
+                client = server.accept();
+            } catch (ClosedChannelException e) {
+                return;
+            }
+            if (!connectionPermits.tryAcquire()) {
+                reject(client);
+                continue;
+            }
+            try {
+                connections.execute(() -> {
+                    try {
+                        handle(client);
+                    } finally {
+                        connectionPermits.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // closed while accepting
+                connectionPermits.release();
+                client.close();
+            }
+        }
+    }
+
+    private static void reject(SocketChannel client) {
+        try (SocketChannel channel = client) {
+            // a fresh connection has an empty send buffer, so this short write does not block the accept loop
+            channel.write(StandardCharsets.UTF_8.encode(JSON_LINES.toJson(error("Too many connections")) + '\n'));
+        } catch (IOException e) {
+            // nothing to tell a client that is already gone
+        }
+    }
+
+    private void handle(SocketChannel client) {
+        try (SocketChannel channel = client;
+             Reader in = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = readLine(in)) != null) {
+                if (line.length() > MAX_REQUEST_CHARS) {
+                    // the rest of the line cannot be told apart from the next request, so the connection ends here
+                    respond(out, error("Request is longer than " + MAX_REQUEST_CHARS + " chars"));
+                    return;
+                }
+                if (line.trim().isEmpty()) continue;
+                respond(out, answer(line));
+            }
+        } catch (IOException e) {
+            // the launcher went away mid-request, nothing left to answer
+        }
+    }
+
+    /**
+     * Reads up to the next line feed, but stops after {@value #MAX_REQUEST_CHARS} + 1 chars, so an over-long line is
+     * noticed without buffering all of it.
+     *
+     * @return the line without the line feed, or {@code null} at the end of the stream
+     */
+    private static String readLine(Reader in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != -1) {
+            if (c == '\n') return line.toString();
+            line.append((char) c);
+            if (line.length() > MAX_REQUEST_CHARS) return line.toString();
+        }
+        return line.length() == 0 ? null : line.toString();
+    }
+
+    private static void respond(Writer out, JsonObject response) throws IOException {
+        out.write(JSON_LINES.toJson(response));
+        out.write('\n');
+        out.flush();
+    }
+
+    private static JsonObject error(String message) {
+        JsonObject response = new JsonObject();
+        response.addProperty("error", message);
+        return response;
+    }
+
+    private JsonObject answer(String line) {
+        JsonObject response = new JsonObject();
+        JsonObject request;
+        try {
+            request = JSON_LINES.fromJson(line, JsonObject.class);
+        } catch (JsonParseException e) {
+            response.addProperty("error", "Request is not a json object: " + e.getMessage());
+            return response;
+        }
+        if (request == null) {
+            response.addProperty("error", "Request is empty");
+            return response;
+        }
+
+        if (request.has("id")) response.add("id", request.get("id"));
+        JsonElement paths = request.get("paths");
+        if (paths == null || !paths.isJsonArray()) {
+            response.addProperty("error", "Request has no paths array");
+            return response;
+        }
+        if (paths.getAsJsonArray().size() > MAX_PATHS_PER_REQUEST) {
+            response.addProperty("error", "Request has more than " + MAX_PATHS_PER_REQUEST + " paths");
+            return response;
+        }
+
+        JsonArray results = new JsonArray();
+        for (JsonElement path : paths.getAsJsonArray()) {
+            if (!path.isJsonPrimitive() || !path.getAsJsonPrimitive().isString()) {
+                response = new JsonObject();
+                if (request.has("id")) response.add("id", request.get("id"));
+                response.addProperty("error", "Every path must be a string, got " + path);
+                return response;
+            }
+            results.add(toJson(path.getAsString(), detect(path.getAsString())));
+        }
+        response.add("results", results);
+        return response;
+    }
+
+    private ScanResult detect(String path) {
+        Path file;
+        try {
+            file = Paths.get(path);
+        } catch (InvalidPathException e) {
+            return new ScanResult(Paths.get(""), ScanResult.Status.IO_ERROR, null, e, 0, 0);
+        }
+        if (!file.isAbsolute()) {
+            return new ScanResult(file, ScanResult.Status.IO_ERROR, null,
+                    new IllegalArgumentException("Path is not absolute: " + path), 0, 0);
+        }
+        return cache.scanFile(file);
+    }
+
+    private static JsonObject toJson(String path, ScanResult result) {
+        JsonObject json = new JsonObject();
+        json.addProperty("path", path);
+        json.addProperty("status", result.getStatus().name());
+        if (result.getData().isPresent()) {
+            ModLoaderData data = result.getData().get();
+            json.addProperty("loader", data.getLoader().name());
+            json.addProperty("loaderVersion", data.getLoaderVersion());
+            json.addProperty("minecraftVersion", data.getMinecraftVersion());
+            json.addProperty("minecraftVersionType", data.getMinecraftVersionType().getName());
+        }
+        if (result.getError() != null) json.addProperty("error", String.valueOf(result.getError().getMessage()));
+        return json;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            server.close();
+            connections.shutdownNow();
+        } finally {
+            if (socketFile != null) deleteSocketFile();
+        }
+    }
+
+    /**
+     * Only deletes the socket this daemon created, not whatever took its place after it was removed.
+     */
+    private void deleteSocketFile() throws IOException {
+        BasicFileAttributes attrs = attributesIfExists(socketFile);
+        if (attrs != null && attrs.isOther() && Objects.equals(attrs.fileKey(), socketFileKey)) {
+            Files.deleteIfExists(socketFile);
+        }
+    }
+}
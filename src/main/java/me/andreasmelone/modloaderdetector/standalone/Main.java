@@ -1,43 +1,117 @@
 package me.andreasmelone.modloaderdetector.standalone;
 
-import com.google.gson.JsonSyntaxException;
-import me.andreasmelone.modloaderdetector.ModLoader;
 import me.andreasmelone.modloaderdetector.ModLoaderData;
+import me.andreasmelone.modloaderdetector.scan.ScanResult;
+import me.andreasmelone.modloaderdetector.scan.VersionScanner;
 
-import java.io.File;
 import java.io.IOException;
-import java.util.Optional;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 public class Main {
     public static void main(String[] args) {
-        File[] currentFiles = new File(".").listFiles();
-        assert currentFiles != null;
-        for(File file : currentFiles) {
-            if (!file.getName().endsWith(".json") || !file.isFile()) continue;
-
-            try {
-                Optional<ModLoaderData> modLoader = ModLoader.findModLoader(file);
-                if(modLoader.isPresent()) {
-                    ModLoaderData data = modLoader.get();
-                    String knownText = " (unknown)";
-                    if(data.getMinecraftVersionType() != null && data.getMinecraftVersionType().isKnown()) knownText = "";
-
-                    System.out.println(file.getName() + ":");
-                    System.out.println("\tMinecraft version: " + data.getMinecraftVersion());
-                    System.out.println("\tMinecraft version type" + knownText + ": " + data.getMinecraftVersionType());
-                    System.out.println("\tLoader: " + data.getLoader());
-                    System.out.println("\tLoader version: " + data.getLoaderVersion());
-                } else {
-                    System.out.println(file.getName() + " contains no data to identify the loader or version.");
-                }
-            } catch (JsonSyntaxException e) {
-                System.out.println(file.getName() + " is an invalid json and the loader cannot be identified.");
-            } catch (IOException e) {
+        if (args.length > 0 && args[0].equals("--daemon")) {
+            daemon(args);
+            return;
+        }
+
+        // without arguments only the json files in the working directory are looked at, like it always used to be
+        // every argument is treated as a directory that is scanned recursively, e.g. .minecraft/versions
+        if (args.length == 0) {
+            scan(new VersionScanner(1), Paths.get("."));
+            return;
+        }
+
+        VersionScanner scanner = new VersionScanner();
+        for (String arg : args) {
+            scan(scanner, Paths.get(arg));
+        }
+    }
+
+    /**
+     * {@code --daemon --socket <path>} listens on a Unix domain socket, {@code --daemon --port <port>} on a loopback
+     * port, where port 0 picks a free one. Any local user can connect to the port, see
+     * {@link Daemon#bindLoopback(int)}. The address is printed once the daemon is ready, see {@link Daemon}.
+     */
+    private static void daemon(String[] args) {
+        if (args.length != 3 || (!args[1].equals("--socket") && !args[1].equals("--port"))) {
+            System.out.println("Usage: --daemon --socket <path> | --daemon --port <port>");
+            System.exit(2);
+            return;
+        }
+
+        Daemon daemon;
+        try {
+            daemon = args[1].equals("--socket")
+                    ? Daemon.bindUnixSocket(Paths.get(args[2]))
+                    : Daemon.bindLoopback(Integer.parseInt(args[2]));
+        } catch (IOException | NumberFormatException e) {
+            System.out.println("The daemon could not be started.");
+            e.printStackTrace();
+            System.exit(1);
+            return;
+        }
+
+        // closing also removes the socket file, so it has to happen on ctrl+c and kill as well
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> closeQuietly(daemon)));
+        System.out.println("Listening on " + daemon.getAddress());
+        try {
+            daemon.serve();
+        } catch (IOException e) {
+            System.out.println("The daemon stopped unexpectedly.");
+            e.printStackTrace();
+            System.exit(1);
+        } finally {
+            closeQuietly(daemon);
+        }
+    }
+
+    private static void closeQuietly(Daemon daemon) {
+        try {
+            daemon.close();
+        } catch (IOException ignored) {
+            // we are going down anyway
+        }
+    }
+
+    private static void scan(VersionScanner scanner, Path root) {
+        try {
+            scanner.scan(root, Main::print);
+        } catch (IOException e) {
+            System.out.println(root + " cannot be scanned.");
+            e.printStackTrace();
+        }
+    }
+
+    private static void print(ScanResult result) {
+        String name = result.getPath().getFileName().toString();
+        switch (result.getStatus()) {
+            case DETECTED:
+                ModLoaderData data = result.getData().get();
+                String knownText = " (unknown)";
+                if(data.getMinecraftVersionType() != null && data.getMinecraftVersionType().isKnown()) knownText = "";
+
+                System.out.println(name + ":");
+                System.out.println("\tMinecraft version: " + data.getMinecraftVersion());
+                System.out.println("\tMinecraft version type" + knownText + ": " + data.getMinecraftVersionType());
+                System.out.println("\tLoader: " + data.getLoader());
+                System.out.println("\tLoader version: " + data.getLoaderVersion());
+                break;
+            case UNDETECTED:
+                System.out.println(name + " contains no data to identify the loader or version.");
+                break;
+            case INVALID_JSON:
+                System.out.println(name + " is an invalid json and the loader cannot be identified.");
+                break;
+            case IO_ERROR:
                 // what a party-killer
-                System.out.println(file.getName() + " cannot be loaded.");
-                e.printStackTrace();
-            }
-            System.out.println();
+                System.out.println(name + " cannot be loaded.");
+                if (result.getError() != null) result.getError().printStackTrace();
+                break;
+            case LIMIT_EXCEEDED:
+                System.out.println(name + " was skipped: " + result.getError().getMessage());
+                break;
         }
+        System.out.println();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,152 @@
+package me.andreasmelone.modloaderdetector.util;
+
+import com.google.gson.*;
+import com.google.gson.internal.LazilyParsedNumber;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import me.andreasmelone.modloaderdetector.DetectionLimits;
+import me.andreasmelone.modloaderdetector.LimitExceededException;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Builds the same {@link JsonObject} tree {@link Util#GSON} would, but enforces {@link DetectionLimits} while reading
+ * tokens, so a hostile document is rejected before its tree is built instead of after.<p>
+ * Gson's own tree adapter recurses once per nesting level, which is exactly what a deeply nested document abuses.
+ * Here the recursion is bounded by {@link DetectionLimits#getMaxDepth()}.
+ */
+public class LimitedJsonParser {
+    /**
+     * The clock is only read every this many tokens, a token is far cheaper than {@link System#nanoTime()}.
+     */
+    private static final int TIME_CHECK_INTERVAL = 1024;
+
+    private final JsonReader reader;
+    private final DetectionLimits limits;
+    private final long startNanos;
+    private int tokens;
+
+    private LimitedJsonParser(Reader reader, DetectionLimits limits, long startNanos) {
+        this.reader = new JsonReader(reader);
+        // Gson#fromJson reads the document leniently as well (comments, unquoted names, single quotes), parse()
+        // switches to strict mode for what follows the root object, which is how Gson checks for trailing data
+        this.reader.setLenient(true);
+        this.limits = limits;
+        this.startNanos = startNanos;
+    }
+
+    /**
+     * Parses a json object within the given limits.
+     *
+     * @param reader     the json source
+     * @param limits     the limits to enforce
+     * @param startNanos the {@link System#nanoTime()} at which work on this input started, for the time budget
+     * @return the parsed object, or {@code null} if the input is empty
+     * @throws JsonSyntaxException    if the input is not valid json, its root is not an object or data follows it
+     * @throws LimitExceededException if the input exceeds one of the limits
+     */
+    public static JsonObject parse(Reader reader, DetectionLimits limits, long startNanos)
+            throws JsonSyntaxException, LimitExceededException {
+        LimitedJsonParser parser = new LimitedJsonParser(reader, limits, startNanos);
+        try {
+            if (parser.reader.peek() != JsonToken.BEGIN_OBJECT) {
+                throw new JsonSyntaxException("Expected a JsonObject but was " + parser.reader.peek());
+            }
+            JsonObject object = parser.readObject(1, false);
+            parser.reader.setLenient(false);
+            if (parser.reader.peek() != JsonToken.END_DOCUMENT) {
+                throw new JsonSyntaxException("JSON document was not fully consumed.");
+            }
+            return object;
+        } catch (EOFException e) {
+            // same as Gson, an empty document is not an error but simply nothing
+            if (parser.tokens == 0) return null;
+            throw new JsonSyntaxException(e);
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    private JsonObject readObject(int depth, boolean arguments) throws IOException {
+        limits.check(DetectionLimits.Limit.DEPTH, depth);
+        reader.beginObject();
+        tick();
+
+        JsonObject object = new JsonObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            tick();
+
+            JsonElement value;
+            if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+                DetectionLimits.Limit counted = null;
+                if (depth == 1 && name.equals("libraries")) counted = DetectionLimits.Limit.LIBRARIES;
+                if (arguments) counted = DetectionLimits.Limit.ARGUMENTS;
+                value = readArray(depth + 1, counted);
+            } else if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+                value = readObject(depth + 1, depth == 1 && name.equals("arguments"));
+            } else {
+                value = readPrimitive();
+            }
+            object.add(name, value);
+        }
+        reader.endObject();
+        tick();
+        return object;
+    }
+
+    /**
+     * @param counted the limit the amount of elements counts against, or {@code null} if there is none
+     */
+    private JsonArray readArray(int depth, DetectionLimits.Limit counted) throws IOException {
+        limits.check(DetectionLimits.Limit.DEPTH, depth);
+        reader.beginArray();
+        tick();
+
+        JsonArray array = new JsonArray();
+        while (reader.hasNext()) {
+            if (counted != null) limits.check(counted, array.size() + 1);
+
+            JsonToken next = reader.peek();
+            if (next == JsonToken.BEGIN_ARRAY) {
+                array.add(readArray(depth + 1, null));
+            } else if (next == JsonToken.BEGIN_OBJECT) {
+                array.add(readObject(depth + 1, false));
+            } else {
+                array.add(readPrimitive());
+            }
+        }
+        reader.endArray();
+        tick();
+        return array;
+    }
+
+    private JsonElement readPrimitive() throws IOException {
+        JsonElement element;
+        switch (reader.peek()) {
+            case STRING:
+                element = new JsonPrimitive(reader.nextString());
+                break;
+            case NUMBER:
+                element = new JsonPrimitive(new LazilyParsedNumber(reader.nextString()));
+                break;
+            case BOOLEAN:
+                element = new JsonPrimitive(reader.nextBoolean());
+                break;
+            case NULL:
+                reader.nextNull();
+                element = JsonNull.INSTANCE;
+                break;
+            default:
+                throw new JsonSyntaxException("Unexpected token " + reader.peek());
+        }
+        tick();
+        return element;
+    }
+
+    private void tick() {
+        if (++tokens % TIME_CHECK_INTERVAL == 0) limits.checkTime(startNanos);
+    }
+}
@@ -1,8 +1,15 @@
 package me.andreasmelone.modloaderdetector.util;
 
 import com.google.gson.*;
+import me.andreasmelone.modloaderdetector.DetectionLimits;
+import me.andreasmelone.modloaderdetector.LimitExceededException;
 import me.andreasmelone.modloaderdetector.versionjson.Argument;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -167,4 +174,36 @@ public class Util {
         });
         return string.toArray(new String[0]);
     }
+
+    /**
+     * Reads a whole file like {@link Files#readAllBytes(Path)}, but stops as soon as it turns out to be larger than
+     * {@link DetectionLimits#getMaxBytes()} or the time budget is used up.
+     * The size is checked up front as well, so an oversized file is usually rejected without reading anything.
+     *
+     * @param path       the file to read
+     * @param limits     the limits to enforce
+     * @param startNanos the {@link System#nanoTime()} at which work on this file started, for the time budget
+     * @return the content of the file
+     * @throws IOException            if the file could not be read
+     * @throws LimitExceededException if the file exceeds the byte limit or the time budget
+     */
+    public static byte[] readAllBytes(Path path, DetectionLimits limits, long startNanos) throws IOException, LimitExceededException {
+        long size = Files.size(path);
+        limits.check(DetectionLimits.Limit.BYTES, size);
+
+        try (InputStream in = Files.newInputStream(path)) {
+            // the file may still grow while we read it, so the size is only a hint
+            ByteArrayOutputStream out = new ByteArrayOutputStream((int) Math.min(size, Integer.MAX_VALUE - 8));
+            byte[] buffer = new byte[8192];
+            long total = 0;
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                total += read;
+                limits.check(DetectionLimits.Limit.BYTES, total);
+                limits.checkTime(startNanos);
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
 }
@@ -0,0 +1,20 @@
+package me.andreasmelone.modloaderdetector;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModLoaderTest {
+    @Test
+    void nullStringIsNothing() {
+        assertFalse(ModLoader.findModLoader((String) null).isPresent());
+        assertFalse(ModLoader.findModLoader((String) null, DetectionLimits.DEFAULT).isPresent());
+    }
+
+    @Test
+    void limitedAndUnlimitedAgree() {
+        String json = "{\"id\":\"1.20.1\",\"type\":\"release\"}";
+        assertEquals(ModLoader.findModLoader(json), ModLoader.findModLoader(json, DetectionLimits.DEFAULT));
+        assertTrue(ModLoader.findModLoader(json).isPresent());
+    }
+}
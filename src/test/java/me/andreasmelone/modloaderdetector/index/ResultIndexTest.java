@@ -0,0 +1,83 @@
+package me.andreasmelone.modloaderdetector.index;
+
+import me.andreasmelone.modloaderdetector.ModLoader;
+import me.andreasmelone.modloaderdetector.ModLoaderData;
+import me.andreasmelone.modloaderdetector.VersionType;
+import me.andreasmelone.modloaderdetector.scan.ScanResult;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Paths;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultIndexTest {
+    private static ScanResult result(ModLoader loader, String minecraft, String loaderVersion) {
+        return new ScanResult(Paths.get(minecraft + "-" + loaderVersion + ".json"), ScanResult.Status.DETECTED,
+                new ModLoaderData(minecraft, VersionType.RELEASE, loaderVersion, loader), null, 0, 0);
+    }
+
+    @Test
+    void sortsLargeShuffledColumns() {
+        List<ScanResult> results = new ArrayList<>();
+        for (int minor = 0; minor < 21; minor++) {
+            for (int build = 0; build < 200; build++) {
+                results.add(result(ModLoader.FABRIC, "1." + minor, "0." + build));
+                // plenty of equal keys, which a broken partition step chokes on
+                results.add(result(ModLoader.FABRIC, "1." + minor, "0.7"));
+            }
+        }
+        Collections.shuffle(results, new Random(42));
+        ResultIndex index = new ResultIndex();
+        index.addAll(results);
+
+        List<ScanResult> sorted = index.query(ModLoader.FABRIC).list();
+        assertEquals(results.size(), sorted.size());
+        assertEquals(new HashSet<>(results).size(), new HashSet<>(sorted).size());
+        for (int i = 1; i < sorted.size(); i++) {
+            ModLoaderData previous = sorted.get(i - 1).getData().get();
+            ModLoaderData current = sorted.get(i).getData().get();
+            int order = Long.compare(VersionKeys.minecraft(previous.getMinecraftVersion()),
+                    VersionKeys.minecraft(current.getMinecraftVersion()));
+            if (order == 0) {
+                order = Long.compare(VersionKeys.loader(previous.getLoaderVersion()),
+                        VersionKeys.loader(current.getLoaderVersion()));
+            }
+            assertTrue(order <= 0, "out of order at " + i);
+        }
+
+        assertEquals(400, index.query(ModLoader.FABRIC).minecraftSeries("1.20").count());
+        assertEquals(20 * 7, index.query(ModLoader.FABRIC).minecraftBelow("1.20").loaderBelow("0.7").count());
+    }
+
+    @Test
+    void releaseBoundsDoNotMatchSnapshots() {
+        ResultIndex index = new ResultIndex();
+        index.add(result(ModLoader.FABRIC, "24w14a", "0.15.0"));
+        index.add(result(ModLoader.FABRIC, "1.19.4", "0.15.0"));
+        index.add(result(ModLoader.FABRIC, "1.20.4", "0.15.0"));
+
+        assertEquals(1, index.query(ModLoader.FABRIC).minecraftBelow("1.20").count());
+        assertEquals(2, index.query(ModLoader.FABRIC).minecraftAtLeast("1.0").count());
+        assertEquals(1, index.query(ModLoader.FABRIC).minecraftSnapshots().count());
+        assertEquals(1, index.query(ModLoader.FABRIC).minecraftAtLeast("24w01a").count());
+        assertEquals(0, index.query(ModLoader.FABRIC).minecraftAtLeast("24w01a").minecraftBelow("1.20").count());
+        assertEquals(3, index.query(ModLoader.FABRIC).count());
+    }
+
+    @Test
+    void groupsUnparseableVersionsByString() {
+        ResultIndex index = new ResultIndex();
+        index.add(result(ModLoader.FABRIC, "1.20", "0.15.0"));
+        index.add(result(ModLoader.FABRIC, "b1.7.3", "0.15.0"));
+        index.add(result(ModLoader.FABRIC, "1.20.0", "0.15.1"));
+        index.add(result(ModLoader.FABRIC, "a1.2.6", "0.15.0"));
+        index.add(result(ModLoader.FABRIC, "b1.7.3", "0.15.1"));
+
+        Map<String, List<ScanResult>> groups = index.query(ModLoader.FABRIC).groupByMinecraftVersion();
+        assertEquals(3, groups.size());
+        assertEquals(2, groups.get("b1.7.3").size());
+        assertEquals(1, groups.get("a1.2.6").size());
+        assertEquals(2, groups.get("1.20").size());
+    }
+}
@@ -0,0 +1,84 @@
+package me.andreasmelone.modloaderdetector.index;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VersionKeysTest {
+    @Test
+    void stagesSortBeforeTheRelease() {
+        assertTrue(VersionKeys.minecraft("1.20.5-snapshot-1") < VersionKeys.minecraft("1.20.5-pre1"));
+        assertTrue(VersionKeys.minecraft("1.20.5-pre1") < VersionKeys.minecraft("1.20.5-pre2"));
+        assertTrue(VersionKeys.minecraft("1.20.5-pre2") < VersionKeys.minecraft("1.20.5-rc1"));
+        assertTrue(VersionKeys.minecraft("1.20.5-rc1") < VersionKeys.minecraft("1.20.5"));
+        assertTrue(VersionKeys.minecraft("1.20.5") < VersionKeys.minecraft("1.20.6-pre1"));
+        assertEquals(VersionKeys.minecraft("1.14 Pre-Release 2"), VersionKeys.minecraft("1.14-pre2"));
+    }
+
+    @Test
+    void missingPatchIsZero() {
+        assertEquals(VersionKeys.minecraft("1.20"), VersionKeys.minecraft("1.20.0"));
+        assertTrue(VersionKeys.minecraft("1.9.4") < VersionKeys.minecraft("1.10"));
+    }
+
+    @Test
+    void snapshotsAreTheirOwnDomain() {
+        long snapshot = VersionKeys.minecraft("24w14a");
+        assertTrue(VersionKeys.isSnapshot(snapshot));
+        assertFalse(VersionKeys.isSnapshot(VersionKeys.minecraft("1.0")));
+        assertFalse(VersionKeys.isSnapshot(VersionKeys.UNPARSEABLE));
+        assertTrue(snapshot < VersionKeys.minecraft("1.0"));
+        assertTrue(VersionKeys.minecraft("23w51b") < VersionKeys.minecraft("24w14a"));
+        assertTrue(VersionKeys.minecraft("24w14a") < VersionKeys.minecraft("24w14b"));
+    }
+
+    @Test
+    void unparseableSortsFirst() {
+        assertEquals(VersionKeys.UNPARSEABLE, VersionKeys.minecraft("b1.7.3"));
+        assertEquals(VersionKeys.UNPARSEABLE, VersionKeys.minecraft(null));
+        assertTrue(VersionKeys.UNPARSEABLE < VersionKeys.minecraft("00w01a"));
+    }
+
+    @Test
+    void componentsAreClamped() {
+        assertEquals(VersionKeys.minecraft("1.4095"), VersionKeys.minecraft("1.99999"));
+        assertEquals(VersionKeys.minecraft("255.0"), VersionKeys.minecraft("9999999999.0"));
+        assertTrue(VersionKeys.minecraft("1.4095.4095") < VersionKeys.minecraft("2.0"));
+        assertTrue(VersionKeys.minecraft("1.0-pre99999") < VersionKeys.minecraft("1.0-rc1"));
+
+        assertEquals(VersionKeys.loader("32767.1"), VersionKeys.loader("99999.1"));
+        assertEquals(VersionKeys.loader("1.65535"), VersionKeys.loader("1.70000"));
+        assertTrue(VersionKeys.loader("32767.65535.65535.65535") > 0);
+    }
+
+    @Test
+    void seriesCoversItsStages() {
+        long start = VersionKeys.minecraftSeriesStart("1.20.x");
+        long end = VersionKeys.minecraftSeriesEnd("1.20");
+        assertTrue(start <= VersionKeys.minecraft("1.20-snapshot-1"));
+        assertTrue(VersionKeys.minecraft("1.20.6") < end);
+        assertEquals(VersionKeys.minecraft("1.21-snapshot-0"), end);
+        assertThrows(IllegalArgumentException.class, () -> VersionKeys.minecraftSeriesStart("1.20.4"));
+    }
+
+    @Test
+    void loaderVersions() {
+        assertEquals(VersionKeys.loader("0.15"), VersionKeys.loader("0.15.0"));
+        assertEquals(VersionKeys.loader("0.15.11"), VersionKeys.loader("0.15.11+build.3"));
+        assertTrue(VersionKeys.loader("0.9.3") < VersionKeys.loader("0.15.0"));
+        assertEquals(VersionKeys.UNPARSEABLE, VersionKeys.loader("beta"));
+    }
+
+    @Test
+    void legacyForgePrefixIsStripped() {
+        assertEquals(VersionKeys.loader("14.23.5.2860"), VersionKeys.loader("1.12.2-14.23.5.2860"));
+        assertEquals(VersionKeys.loader("10.13.4.1614"), VersionKeys.loader("1.7.10-10.13.4.1614"));
+    }
+
+    @Test
+    void otherDashesAreNotAPrefix() {
+        assertEquals(VersionKeys.loader("20.4.200"), VersionKeys.loader("20.4.200-1"));
+        assertEquals(VersionKeys.loader("1.20.1"), VersionKeys.loader("1.20.1-47.2.0"));
+        assertEquals(VersionKeys.loader("1.12.2"), VersionKeys.loader("1.12.2-1"));
+    }
+}
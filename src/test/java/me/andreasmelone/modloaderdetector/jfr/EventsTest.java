@@ -0,0 +1,87 @@
+package me.andreasmelone.modloaderdetector.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import me.andreasmelone.modloaderdetector.DetectionLimits;
+import me.andreasmelone.modloaderdetector.scan.VersionScanner;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventsTest {
+    private static final String PREFIX = "me.andreasmelone.modloaderdetector.";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void disabledEventsAreNotStarted() {
+        assertNull(Events.beginFileRead());
+        assertNull(Events.beginParse());
+        assertNull(Events.beginDetector());
+        assertNull(Events.beginScanBatch());
+    }
+
+    @Test
+    void enabledEventsAreRecordedWithTheirFields() throws IOException {
+        Path versions = Files.createDirectories(dir.resolve("versions"));
+        String json = "{\"id\":\"1.20.1\",\"type\":\"release\"}";
+        Path file = Files.write(versions.resolve("1.20.1.json"), json.getBytes(StandardCharsets.UTF_8));
+
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            for (String name : new String[] {"FileRead", "Parse", "Detector", "ScanBatch"}) {
+                recording.enable(PREFIX + name).withoutThreshold();
+            }
+            recording.start();
+            new VersionScanner(Integer.MAX_VALUE, DetectionLimits.DEFAULT).scan(versions, result -> {});
+            recording.stop();
+            Path dump = dir.resolve("recording.jfr");
+            recording.dump(dump);
+            events = RecordingFile.readAllEvents(dump).stream()
+                    .filter(event -> event.getEventType().getName().startsWith(PREFIX))
+                    .collect(Collectors.toList());
+        }
+
+        RecordedEvent read = only(events, "FileRead");
+        assertEquals(file.toString(), read.getString("path"));
+        assertEquals(json.length(), read.getLong("bytes"));
+
+        RecordedEvent parse = only(events, "Parse");
+        assertEquals(file.toString(), parse.getString("path"));
+        assertEquals(json.length(), parse.getLong("length"));
+        assertEquals("ok", parse.getString("outcome"));
+
+        List<RecordedEvent> detectors = named(events, "Detector");
+        assertFalse(detectors.isEmpty());
+        RecordedEvent last = detectors.get(detectors.size() - 1);
+        assertTrue(last.getBoolean("matched"));
+        assertNotNull(last.getString("loader"));
+
+        RecordedEvent batch = only(events, "ScanBatch");
+        assertEquals(versions.toString(), batch.getString("root"));
+        assertEquals(1, batch.getInt("files"));
+        assertEquals(1, batch.getInt("detected"));
+        assertEquals(json.length(), batch.getLong("bytes"));
+    }
+
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events.stream().filter(event -> event.getEventType().getName().equals(PREFIX + name))
+                .collect(Collectors.toList());
+    }
+
+    private static RecordedEvent only(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = named(events, name);
+        assertEquals(1, matching.size(), name);
+        return matching.get(0);
+    }
+}
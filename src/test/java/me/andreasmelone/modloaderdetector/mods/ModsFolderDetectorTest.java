@@ -0,0 +1,186 @@
+package me.andreasmelone.modloaderdetector.mods;
+
+import me.andreasmelone.modloaderdetector.ModLoader;
+import me.andreasmelone.modloaderdetector.ModLoaderData;
+import me.andreasmelone.modloaderdetector.VersionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModsFolderDetectorTest {
+    private static final String FABRIC = "{\"schemaVersion\":1,\"id\":\"a\",\"depends\":"
+            + "{\"minecraft\":\"~1.20.1\",\"fabricloader\":\">=0.15.0\"}}";
+    private static final String QUILT = "{\"schema_version\":1,\"quilt_loader\":{\"id\":\"b\",\"depends\":["
+            + "{\"id\":\"quilt_loader\",\"versions\":\">=0.19.2\"},{\"id\":\"minecraft\",\"versions\":[\"1.20\",\"1.20.1\"]},"
+            + "\"fabric-api\"]}}";
+    private static final String FORGE = "modLoader=\"javafml\"\nloaderVersion=\"[47,)\"\n[[mods]]\nmodId=\"c\"\n"
+            + "[[dependencies.c]]\n    modId=\"forge\"\n    versionRange=\"[47.1,)\"\n"
+            + "[[dependencies.c]]\n    modId=\"minecraft\"\n    versionRange=\"[1.20.1,1.21)\"\n";
+    private static final String NEOFORGE = "modLoader=\"javafml\"\n[[mods]]\nmodId=\"d\"\n"
+            + "[[dependencies.d]]\nmodId=\"neoforge\"\ntype=\"required\"\nversionRange=\"[20.4.200,)\"\n"
+            + "[[dependencies.d]]\nmodId=\"minecraft\"\ntype=\"required\"\nversionRange=\"[1.20.4]\"\n";
+    private static final String MCMOD = "[{\"modid\":\"e\",\"mcversion\":\"1.12.2\"}]";
+
+    @TempDir
+    Path mods;
+
+    private Path jar(String name, String... entries) throws IOException {
+        Path jar = mods.resolve(name);
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(jar))) {
+            for (int i = 0; i < entries.length; i += 2) {
+                zip.putNextEntry(new ZipEntry(entries[i]));
+                zip.write(entries[i + 1].getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return jar;
+    }
+
+    private Optional<ModLoaderData> detect() throws IOException {
+        return ModsFolderDetector.findModLoader(mods);
+    }
+
+    @Test
+    void fabric() throws IOException {
+        jar("a.jar", "fabric.mod.json", FABRIC);
+        assertEquals(Optional.of(new ModLoaderData("1.20.1", VersionType.RELEASE, "0.15.0", ModLoader.FABRIC)), detect());
+    }
+
+    @Test
+    void quiltWinsOverFabric() throws IOException {
+        jar("a.jar", "fabric.mod.json", FABRIC);
+        jar("a2.jar", "fabric.mod.json", FABRIC);
+        jar("b.jar", "quilt.mod.json", QUILT);
+        // the fabric mods still raise the minecraft version, but not the loader version
+        assertEquals(Optional.of(new ModLoaderData("1.20.1", VersionType.RELEASE, "0.19.2", ModLoader.QUILT)), detect());
+    }
+
+    @Test
+    void forge() throws IOException {
+        jar("c.jar", "META-INF/mods.toml", FORGE);
+        assertEquals(Optional.of(new ModLoaderData("1.20.1", VersionType.RELEASE, "47.1", ModLoader.FORGE)), detect());
+    }
+
+    @Test
+    void neoforge() throws IOException {
+        jar("d.jar", "META-INF/neoforge.mods.toml", NEOFORGE);
+        assertEquals(Optional.of(new ModLoaderData("1.20.4", VersionType.RELEASE, "20.4.200", ModLoader.NEOFORGE)), detect());
+    }
+
+    @Test
+    void modsTomlDependingOnNeoforgeIsNeoforge() throws IOException {
+        List<ModMetadata> metadata = ModsFolderDetector.inspectJar(jar("d.jar", "META-INF/mods.toml", NEOFORGE));
+        assertEquals(1, metadata.size());
+        assertEquals(ModLoader.NEOFORGE, metadata.get(0).getLoader());
+        assertEquals("[20.4.200,)", metadata.get(0).getLoaderConstraint());
+    }
+
+    @Test
+    void legacyForge() throws IOException {
+        jar("e.jar", "mcmod.info", MCMOD);
+        jar("f.jar", "mcmod.info", "{\"modListVersion\":2,\"modList\":[{\"modid\":\"f\",\"mcversion\":\"1.7.10\"}]}");
+        assertEquals(Optional.of(new ModLoaderData("1.12.2", VersionType.RELEASE, null, ModLoader.LEGACY_FORGE)), detect());
+    }
+
+    @Test
+    void unexpandedMcversionIsIgnored() throws IOException {
+        jar("e.jar", "mcmod.info", "[{\"modid\":\"e\",\"mcversion\":\"${mcversion}\"}]");
+        assertFalse(detect().isPresent());
+        jar("f.jar", "mcmod.info", MCMOD);
+        assertEquals("1.12.2", detect().get().getMinecraftVersion());
+    }
+
+    @Test
+    void singleLoaderJarsOutvoteMultiLoaderJars() throws IOException {
+        jar("c.jar", "META-INF/mods.toml", FORGE);
+        jar("multi1.jar", "fabric.mod.json", FABRIC, "META-INF/neoforge.mods.toml", NEOFORGE);
+        jar("multi2.jar", "fabric.mod.json", FABRIC, "META-INF/neoforge.mods.toml", NEOFORGE);
+        assertEquals(ModLoader.FORGE, detect().get().getLoader());
+
+        // forge and neoforge both have one exclusive vote, neoforge has more in total, fabric has no exclusive vote
+        jar("multi3.jar", "fabric.mod.json", FABRIC, "META-INF/mods.toml", FORGE);
+        jar("d.jar", "META-INF/neoforge.mods.toml", NEOFORGE);
+        assertEquals(ModLoader.NEOFORGE, detect().get().getLoader());
+    }
+
+    @Test
+    void brokenJarsAreSkipped() throws IOException {
+        Files.write(mods.resolve("broken.jar"), new byte[] {1, 2, 3});
+        jar("a.jar", "fabric.mod.json", FABRIC, "mcmod.info", "not json at all {");
+        assertEquals(ModLoader.FABRIC, detect().get().getLoader());
+    }
+
+    @Test
+    void metadataInflatingPastTheCapIsSkipped() throws IOException {
+        Path jar = mods.resolve("bomb.jar");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(jar))) {
+            byte[] line = "# padding padding padding padding padding padding padding\n".getBytes(StandardCharsets.UTF_8);
+            for (String name : new String[] {"META-INF/mods.toml", "fabric.mod.json"}) {
+                zip.putNextEntry(new ZipEntry(name));
+                OutputStream out = zip;
+                if (name.endsWith(".json")) out.write("{\"a\":\"".getBytes(StandardCharsets.UTF_8));
+                for (int i = 0; i < 2 * 1024 * 1024 / line.length; i++) out.write(line, 0, line.length - 1);
+                zip.closeEntry();
+            }
+        }
+        lieAboutSizes(jar);
+        assertTrue(ModsFolderDetector.inspectJar(jar).isEmpty());
+    }
+
+    /**
+     * Rewrites the uncompressed sizes in the central directory to 64 bytes, so only the inflated stream reveals them.
+     */
+    private static void lieAboutSizes(Path jar) throws IOException {
+        byte[] bytes = Files.readAllBytes(jar);
+        for (int i = 0; i + 28 <= bytes.length; i++) {
+            if (bytes[i] == 'P' && bytes[i + 1] == 'K' && bytes[i + 2] == 1 && bytes[i + 3] == 2) {
+                bytes[i + 24] = 64;
+                bytes[i + 25] = 0;
+                bytes[i + 26] = 0;
+                bytes[i + 27] = 0;
+            }
+        }
+        Files.write(jar, bytes);
+    }
+
+    @Test
+    void lowerBounds() {
+        assertEquals("1.20.1", ModsFolderDetector.lowerBound("[1.20.1,1.21)"));
+        assertEquals("47", ModsFolderDetector.lowerBound("[47,)"));
+        assertEquals("1.20.4", ModsFolderDetector.lowerBound("[1.20.4]"));
+        assertNull(ModsFolderDetector.lowerBound("(1.19,1.20]"));
+        assertNull(ModsFolderDetector.lowerBound("(,1.20]"));
+        assertEquals("0.15.0", ModsFolderDetector.lowerBound(">=0.15.0"));
+        assertNull(ModsFolderDetector.lowerBound(">0.15.0"));
+        assertEquals("1.20.1", ModsFolderDetector.lowerBound("~1.20.1"));
+        assertEquals("1.20", ModsFolderDetector.lowerBound("1.20.x"));
+        assertEquals("1.20", ModsFolderDetector.lowerBound(">=1.20 <1.21"));
+        assertNull(ModsFolderDetector.lowerBound("*"));
+        assertNull(ModsFolderDetector.lowerBound("<1.21"));
+        assertEquals("1.19.4", ModsFolderDetector.lowerBound("1.20 || 1.19.4"));
+        assertNull(ModsFolderDetector.lowerBound("1.20 || *"));
+        assertEquals("1.20.5-pre1", ModsFolderDetector.lowerBound("1.20.5 || 1.20.5-pre1"));
+    }
+
+    @Test
+    void versionOrder() {
+        assertTrue(ModsFolderDetector.compareVersions("1.20.5-pre1", "1.20.5") < 0);
+        assertTrue(ModsFolderDetector.compareVersions("1.20.5-pre2", "1.20.5-pre10") < 0);
+        assertTrue(ModsFolderDetector.compareVersions("1.20.5-pre2", "1.20.5-rc1") < 0);
+        assertTrue(ModsFolderDetector.compareVersions("1.20.5-rc1", "1.20.4") > 0);
+        assertTrue(ModsFolderDetector.compareVersions("1.9", "1.10") < 0);
+        assertTrue(ModsFolderDetector.compareVersions("1.20", "1.20.1") < 0);
+        assertEquals(0, ModsFolderDetector.compareVersions("0.15.11+build.1", "0.15.11"));
+    }
+}
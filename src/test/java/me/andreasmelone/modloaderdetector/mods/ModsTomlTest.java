@@ -0,0 +1,53 @@
+package me.andreasmelone.modloaderdetector.mods;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModsTomlTest {
+    private static ModsToml read(String toml) throws IOException {
+        return ModsToml.read(new StringReader(toml));
+    }
+
+    @Test
+    void readsTopLevelAndDependencies() throws IOException {
+        ModsToml toml = read("modLoader = \"javafml\" # the loader\nloaderVersion='[47,)'\nlicense=\"MIT\"\n"
+                + "[[mods]]\nmodId=\"a\"\nversion=\"1.0\"\n"
+                + "[[dependencies.a]]\nmodId=\"forge\"\nversionRange=\"[47.1,)\"\n"
+                + "[[dependencies.a]]\nmodId=\"minecraft\"\nversionRange=\"[1.20.1,1.21)\"\n");
+        assertEquals("javafml", toml.getTopLevel().get("modLoader"));
+        assertEquals("[47,)", toml.getTopLevel().get("loaderVersion"));
+        assertFalse(toml.getTopLevel().containsKey("modId"));
+        assertEquals(2, toml.getDependencies().size());
+        assertEquals("[47.1,)", toml.getDependencyRange("forge"));
+        assertEquals("[1.20.1,1.21)", toml.getDependencyRange("MINECRAFT"));
+        assertNull(toml.getDependencyRange("neoforge"));
+    }
+
+    @Test
+    void hashInsideQuotesIsNotAComment() throws IOException {
+        ModsToml toml = read("issueTrackerURL=\"https://example.com/#issues\" # comment\n");
+        assertEquals("https://example.com/#issues", toml.getTopLevel().get("issueTrackerURL"));
+    }
+
+    @Test
+    void skipsMultiLineStrings() throws IOException {
+        ModsToml toml = read("[[mods]]\ndescription='''\nmodId=\"fake\"\n[[dependencies.fake]]\n'''\n"
+                + "[[dependencies.a]]\nmodId=\"minecraft\"\nversionRange=\"[1.20,)\"\n"
+                + "[[dependencies.a]]\ndescription=\"\"\"one line\"\"\"\nmodId=\"forge\"\n");
+        assertEquals(2, toml.getDependencies().size());
+        assertEquals("[1.20,)", toml.getDependencyRange("minecraft"));
+        assertNull(toml.getDependencyRange("fake"));
+        assertEquals("forge", toml.getDependencies().get(1).get("modId"));
+    }
+
+    @Test
+    void otherTablesAreNotDependencies() throws IOException {
+        ModsToml toml = read("[mc-publish]\nmodId=\"minecraft\"\n[[mods]]\nmodId=\"a\"\n");
+        assertTrue(toml.getDependencies().isEmpty());
+        assertNull(toml.getDependencyRange("minecraft"));
+    }
+}
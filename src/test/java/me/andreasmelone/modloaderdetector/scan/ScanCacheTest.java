@@ -0,0 +1,111 @@
+package me.andreasmelone.modloaderdetector.scan;
+
+import me.andreasmelone.modloaderdetector.DetectionLimits;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScanCacheTest {
+    private static final String VANILLA = "{\"id\":\"1.20.1\",\"type\":\"release\"}";
+
+    @TempDir
+    Path dir;
+
+    private Path write(String name, String json) throws IOException {
+        return Files.write(dir.resolve(name), json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void unchangedFilesAreHits() throws IOException {
+        Path file = write("a.json", VANILLA);
+        ScanCache cache = new ScanCache(new VersionScanner(), 16);
+
+        ScanResult first = cache.scanFile(file);
+        assertEquals(ScanResult.Status.DETECTED, first.getStatus());
+        assertSame(first, cache.scanFile(file));
+        // a different spelling of the same file shares the entry
+        assertSame(first, cache.scanFile(dir.resolve(".").resolve("a.json")));
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void changedFilesAreScannedAgain() throws IOException {
+        Path file = write("a.json", VANILLA);
+        ScanCache cache = new ScanCache(new VersionScanner(), 16);
+        FileTime modified = Files.getLastModifiedTime(file);
+        assertEquals("1.20.1", cache.scanFile(file).getData().get().getMinecraftVersion());
+
+        // same size, only the modification time tells
+        write("a.json", VANILLA.replace("1.20.1", "1.20.2"));
+        Files.setLastModifiedTime(file, FileTime.fromMillis(modified.toMillis() + 2000));
+        assertEquals("1.20.2", cache.scanFile(file).getData().get().getMinecraftVersion());
+
+        // same modification time, only the size tells
+        write("a.json", VANILLA.replace("1.20.1", "1.20.10"));
+        Files.setLastModifiedTime(file, FileTime.fromMillis(modified.toMillis() + 2000));
+        assertEquals("1.20.10", cache.scanFile(file).getData().get().getMinecraftVersion());
+
+        assertEquals(0, cache.getHits());
+        assertEquals(3, cache.getMisses());
+    }
+
+    @Test
+    void ioErrorsAreNotCached() throws IOException {
+        Path file = dir.resolve("late.json");
+        ScanCache cache = new ScanCache(new VersionScanner(), 16);
+        assertEquals(ScanResult.Status.IO_ERROR, cache.scanFile(file).getStatus());
+        assertEquals(0, cache.size());
+
+        write("late.json", VANILLA);
+        assertEquals(ScanResult.Status.DETECTED, cache.scanFile(file).getStatus());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void exhaustedTimeBudgetsAreNotCached() throws IOException {
+        Path file = write("a.json", VANILLA);
+        ScanCache cache = new ScanCache(
+                new VersionScanner(Integer.MAX_VALUE, DetectionLimits.DEFAULT.withTimeBudget(Duration.ZERO)), 16);
+        assertEquals(ScanResult.Status.LIMIT_EXCEEDED, cache.scanFile(file).getStatus());
+        assertEquals(ScanResult.Status.LIMIT_EXCEEDED, cache.scanFile(file).getStatus());
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    void otherLimitsAreCached() throws IOException {
+        Path file = write("a.json", VANILLA);
+        ScanCache cache = new ScanCache(
+                new VersionScanner(Integer.MAX_VALUE, DetectionLimits.DEFAULT.withMaxBytes(4)), 16);
+        assertEquals(ScanResult.Status.LIMIT_EXCEEDED, cache.scanFile(file).getStatus());
+        assertEquals(ScanResult.Status.LIMIT_EXCEEDED, cache.scanFile(file).getStatus());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    void leastRecentlyUsedEntriesAreDropped() throws IOException {
+        Path a = write("a.json", VANILLA);
+        Path b = write("b.json", VANILLA);
+        Path c = write("c.json", VANILLA);
+        ScanCache cache = new ScanCache(new VersionScanner(), 2);
+        cache.scanFile(a);
+        cache.scanFile(b);
+        cache.scanFile(a);
+        cache.scanFile(c);
+        assertEquals(2, cache.size());
+
+        cache.scanFile(a);
+        assertEquals(2, cache.getHits());
+        cache.scanFile(b);
+        assertEquals(4, cache.getMisses());
+    }
+}
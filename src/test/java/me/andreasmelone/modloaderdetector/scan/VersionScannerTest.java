@@ -0,0 +1,61 @@
+package me.andreasmelone.modloaderdetector.scan;
+
+import me.andreasmelone.modloaderdetector.DetectionLimits;
+import me.andreasmelone.modloaderdetector.LimitExceededException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VersionScannerTest {
+    private static final String VANILLA = "{\"id\":\"1.20\",\"type\":\"release\"}";
+
+    @TempDir
+    Path dir;
+
+    private ScanResult scan(String name, String json, DetectionLimits limits) throws IOException {
+        Path file = Files.write(dir.resolve(name), json.getBytes(StandardCharsets.UTF_8));
+        return new VersionScanner(Integer.MAX_VALUE, limits).scanFile(file);
+    }
+
+    @Test
+    void bytes() throws IOException {
+        assertEquals(ScanResult.Status.DETECTED, scan("ok.json", VANILLA, DetectionLimits.DEFAULT).getStatus());
+
+        ScanResult result = scan("big.json", VANILLA, DetectionLimits.DEFAULT.withMaxBytes(VANILLA.length() - 1));
+        assertEquals(ScanResult.Status.LIMIT_EXCEEDED, result.getStatus());
+        assertEquals(DetectionLimits.Limit.BYTES, ((LimitExceededException) result.getError()).getLimit());
+    }
+
+    @Test
+    void trailingDataIsInvalidJson() throws IOException {
+        assertEquals(ScanResult.Status.INVALID_JSON,
+                scan("trailing.json", VANILLA + " garbage", DetectionLimits.DEFAULT).getStatus());
+        assertEquals(ScanResult.Status.INVALID_JSON,
+                scan("trailing.json", VANILLA + " garbage", DetectionLimits.UNLIMITED).getStatus());
+    }
+
+    @Test
+    void trailingCommentIsInvalidJsonWithAndWithoutLimits() throws IOException {
+        assertEquals(ScanResult.Status.INVALID_JSON,
+                scan("comment.json", VANILLA + " // c", DetectionLimits.DEFAULT).getStatus());
+        assertEquals(ScanResult.Status.INVALID_JSON,
+                scan("comment.json", VANILLA + " // c", DetectionLimits.UNLIMITED).getStatus());
+    }
+
+    @Test
+    void arrayRootIsInvalidJson() throws IOException {
+        assertEquals(ScanResult.Status.INVALID_JSON,
+                scan("array.json", "[" + VANILLA + "]", DetectionLimits.DEFAULT).getStatus());
+    }
+
+    @Test
+    void emptyFileIsUndetected() throws IOException {
+        assertEquals(ScanResult.Status.UNDETECTED, scan("empty.json", "", DetectionLimits.DEFAULT).getStatus());
+    }
+}
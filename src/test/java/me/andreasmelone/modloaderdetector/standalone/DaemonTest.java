@@ -0,0 +1,281 @@
+package me.andreasmelone.modloaderdetector.standalone;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.*;
+import java.net.BindException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class DaemonTest {
+    private static final String VANILLA = "{\"id\":\"1.20.1\",\"type\":\"release\"}";
+
+    @TempDir
+    Path dir;
+
+    private final List<Closeable> resources = new ArrayList<>();
+
+    @AfterEach
+    void closeResources() throws IOException {
+        Collections.reverse(resources);
+        for (Closeable resource : resources) resource.close();
+    }
+
+    private Daemon serve(Daemon daemon) {
+        resources.add(daemon);
+        Thread thread = new Thread(() -> {
+            try {
+                daemon.serve();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+        return daemon;
+    }
+
+    private Client connect(Daemon daemon) throws IOException {
+        Client client;
+        if (daemon.getAddress() instanceof InetSocketAddress) {
+            Socket socket = new Socket();
+            socket.connect(daemon.getAddress());
+            socket.setSoTimeout(10_000);
+            client = new Client(socket, socket.getInputStream(), socket.getOutputStream());
+        } else {
+            SocketChannel channel = SocketChannel.open(daemon.getAddress());
+            client = new Client(channel, Channels.newInputStream(channel), Channels.newOutputStream(channel));
+        }
+        resources.add(client);
+        return client;
+    }
+
+    private static String request(Object id, String... paths) {
+        JsonObject request = new JsonObject();
+        request.addProperty("id", String.valueOf(id));
+        JsonArray array = new JsonArray();
+        for (String path : paths) array.add(path);
+        request.add("paths", array);
+        return request.toString();
+    }
+
+    @Test
+    void answersRequests() throws IOException {
+        Path file = Files.write(dir.resolve("1.20.1.json"), VANILLA.getBytes(StandardCharsets.UTF_8));
+        Client client = connect(serve(Daemon.bindLoopback(0)));
+
+        JsonObject response = client.ask(request(1, file.toString(), "relative/1.20.1.json"));
+        assertEquals("1", response.get("id").getAsString());
+        JsonArray results = response.getAsJsonArray("results");
+        assertEquals(2, results.size());
+
+        JsonObject detected = results.get(0).getAsJsonObject();
+        assertEquals(file.toString(), detected.get("path").getAsString());
+        assertEquals("DETECTED", detected.get("status").getAsString());
+        assertEquals("1.20.1", detected.get("minecraftVersion").getAsString());
+        assertEquals("release", detected.get("minecraftVersionType").getAsString());
+
+        JsonObject relative = results.get(1).getAsJsonObject();
+        assertEquals("IO_ERROR", relative.get("status").getAsString());
+        assertTrue(relative.get("error").getAsString().contains("not absolute"));
+
+        // the same connection keeps answering
+        assertEquals("2", client.ask(request(2, file.toString())).get("id").getAsString());
+    }
+
+    @Test
+    void answersBadRequestsWithErrors() throws IOException {
+        Client client = connect(serve(Daemon.bindLoopback(0)));
+
+        assertTrue(client.ask("not json").get("error").getAsString().startsWith("Request is not a json object"));
+        JsonObject noPaths = client.ask("{\"id\":7}");
+        assertEquals(7, noPaths.get("id").getAsInt());
+        assertEquals("Request has no paths array", noPaths.get("error").getAsString());
+        assertTrue(client.ask("{\"paths\":[1]}").get("error").getAsString().startsWith("Every path must be a string"));
+
+        String[] paths = new String[1025];
+        Arrays.fill(paths, dir.resolve("x.json").toString());
+        assertEquals("Request has more than 1024 paths", client.ask(request(3, paths)).get("error").getAsString());
+
+        // blank lines are skipped, the next answer belongs to the next request
+        client.send("");
+        assertEquals("4", client.ask(request(4)).get("id").getAsString());
+    }
+
+    @Test
+    void closesConnectionsWithOverlongRequests() throws IOException {
+        Client client = connect(serve(Daemon.bindLoopback(0)));
+        char[] line = new char[1024 * 1024 + 1];
+        Arrays.fill(line, 'a');
+        client.out.write(line);
+        client.out.flush();
+
+        assertEquals("Request is longer than 1048576 chars", client.read().get("error").getAsString());
+        assertNull(client.in.readLine());
+    }
+
+    @Test
+    void limitsConcurrentConnections() throws IOException, InterruptedException {
+        Daemon daemon = serve(Daemon.bindLoopback(0));
+        List<Client> clients = new ArrayList<>();
+        for (int i = 0; i < 64; i++) clients.add(connect(daemon));
+        // a round trip on every connection makes sure all of them hold a permit
+        for (Client client : clients) assertTrue(client.ask(request(0)).has("results"));
+
+        Client rejected = connect(daemon);
+        assertEquals("Too many connections", rejected.read().get("error").getAsString());
+        assertNull(rejected.in.readLine());
+
+        clients.get(0).close();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (true) {
+            JsonObject response = connect(daemon).tryAsk(request(5));
+            if (response != null && response.has("results")) break;
+            assertTrue(System.nanoTime() < deadline, "the permit of the closed connection was not released");
+            Thread.sleep(20);
+        }
+    }
+
+    private static boolean unixSocketsAvailable() {
+        try {
+            Class.forName("java.net.UnixDomainSocketAddress");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    @Test
+    void unixSocketRoundTripAndCleanup() throws IOException {
+        assumeTrue(unixSocketsAvailable());
+        Path socket = dir.resolve("d.sock");
+        Daemon daemon = serve(Daemon.bindUnixSocket(socket));
+        assertTrue(connect(daemon).ask(request(1)).has("results"));
+
+        daemon.close();
+        assertFalse(Files.exists(socket, LinkOption.NOFOLLOW_LINKS));
+    }
+
+    @Test
+    void refusesToReplaceRegularFiles() throws IOException {
+        assumeTrue(unixSocketsAvailable());
+        Path file = Files.write(dir.resolve("d.sock"), "keep me".getBytes(StandardCharsets.UTF_8));
+        assertThrows(BindException.class, () -> Daemon.bindUnixSocket(file));
+        assertEquals("keep me", new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+
+        Path directory = Files.createDirectory(dir.resolve("dir.sock"));
+        assertThrows(BindException.class, () -> Daemon.bindUnixSocket(directory));
+        assertTrue(Files.isDirectory(directory));
+    }
+
+    @Test
+    void refusesToStealALiveSocket() throws IOException {
+        assumeTrue(unixSocketsAvailable());
+        Path socket = dir.resolve("d.sock");
+        Daemon live = serve(Daemon.bindUnixSocket(socket));
+
+        assertThrows(BindException.class, () -> Daemon.bindUnixSocket(socket));
+        assertTrue(connect(live).ask(request(1)).has("results"));
+    }
+
+    @Test
+    void doesNotDeleteWhatReplacedItsSocket() throws IOException {
+        assumeTrue(unixSocketsAvailable());
+        Path socket = dir.resolve("d.sock");
+        Daemon daemon = serve(Daemon.bindUnixSocket(socket));
+        Files.delete(socket);
+        Files.write(socket, "someone else's".getBytes(StandardCharsets.UTF_8));
+
+        daemon.close();
+        assertTrue(Files.isRegularFile(socket));
+    }
+
+    @Test
+    void replacesTheSocketOfAKilledDaemon() throws IOException, InterruptedException {
+        assumeTrue(unixSocketsAvailable());
+        Path socket = dir.resolve("d.sock");
+        Path java = dir.getFileSystem().getPath(System.getProperty("java.home"), "bin", "java");
+        Process killed = new ProcessBuilder(java.toString(), "-cp", System.getProperty("java.class.path"),
+                Main.class.getName(), "--daemon", "--socket", socket.toString())
+                .redirectErrorStream(true).start();
+        try {
+            // "Listening on ..." is printed once the socket is bound
+            String ready = new BufferedReader(new InputStreamReader(killed.getInputStream(), StandardCharsets.UTF_8)).readLine();
+            assertNotNull(ready);
+            assertTrue(ready.startsWith("Listening on"), ready);
+        } finally {
+            killed.destroyForcibly();
+            killed.waitFor();
+        }
+        assertTrue(Files.exists(socket, LinkOption.NOFOLLOW_LINKS), "a killed daemon leaves its socket behind");
+
+        Daemon daemon = serve(Daemon.bindUnixSocket(socket));
+        assertTrue(connect(daemon).ask(request(1)).has("results"));
+    }
+
+    private static class Client implements Closeable {
+        private final Closeable connection;
+        private final BufferedReader in;
+        private final Writer out;
+
+        private Client(Closeable connection, InputStream in, OutputStream out) {
+            this.connection = connection;
+            this.in = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        }
+
+        private void send(String line) throws IOException {
+            out.write(line);
+            out.write('\n');
+            out.flush();
+        }
+
+        private JsonObject read() throws IOException {
+            String line = in.readLine();
+            assertNotNull(line, "the daemon closed the connection");
+            return JsonParser.parseString(line).getAsJsonObject();
+        }
+
+        private JsonObject ask(String line) throws IOException {
+            send(line);
+            return read();
+        }
+
+        /**
+         * @return the answer, or {@code null} if the connection was refused or closed
+         */
+        private JsonObject tryAsk(String line) {
+            try {
+                send(line);
+                String answer = in.readLine();
+                return answer == null ? null : JsonParser.parseString(answer).getAsJsonObject();
+            } catch (IOException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            connection.close();
+        }
+    }
+}
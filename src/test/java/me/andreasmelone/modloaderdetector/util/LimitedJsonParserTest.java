@@ -0,0 +1,98 @@
+package me.andreasmelone.modloaderdetector.util;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonSyntaxException;
+import me.andreasmelone.modloaderdetector.DetectionLimits;
+import me.andreasmelone.modloaderdetector.LimitExceededException;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LimitedJsonParserTest {
+    private static JsonObject parse(String json, DetectionLimits limits) {
+        return LimitedJsonParser.parse(new StringReader(json), limits, System.nanoTime());
+    }
+
+    private static DetectionLimits.Limit exceeded(String json, DetectionLimits limits) {
+        return assertThrows(LimitExceededException.class, () -> parse(json, limits)).getLimit();
+    }
+
+    private static String repeat(String s, int times) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < times; i++) builder.append(s);
+        return builder.toString();
+    }
+
+    @Test
+    void buildsTheSameTreeAsGson() {
+        String json = "{\"id\":\"1.20.1\",\"libraries\":[{\"name\":\"a:b:1\"}],\"n\":1.50,\"b\":true,\"x\":null}";
+        assertEquals(Util.GSON.fromJson(json, JsonObject.class), parse(json, DetectionLimits.DEFAULT));
+    }
+
+    @Test
+    void depth() {
+        String nested = "{\"a\":" + repeat("[", 10) + repeat("]", 10) + "}";
+        assertNotNull(parse(nested, DetectionLimits.DEFAULT.withMaxDepth(11)));
+        assertEquals(DetectionLimits.Limit.DEPTH, exceeded(nested, DetectionLimits.DEFAULT.withMaxDepth(10)));
+        // far deeper than the stack would allow for a recursive parser without a limit
+        String hostile = "{\"a\":" + repeat("[", 100_000) + repeat("]", 100_000) + "}";
+        assertEquals(DetectionLimits.Limit.DEPTH, exceeded(hostile, DetectionLimits.DEFAULT));
+    }
+
+    @Test
+    void libraries() {
+        String json = "{\"libraries\":[" + repeat("{},", 4) + "{}]}";
+        assertNotNull(parse(json, DetectionLimits.DEFAULT.withMaxLibraries(5)));
+        assertEquals(DetectionLimits.Limit.LIBRARIES, exceeded(json, DetectionLimits.DEFAULT.withMaxLibraries(4)));
+        // only the top-level libraries array is counted
+        assertNotNull(parse("{\"x\":{\"libraries\":[1,2,3]}}", DetectionLimits.DEFAULT.withMaxLibraries(1)));
+    }
+
+    @Test
+    void arguments() {
+        String json = "{\"arguments\":{\"game\":[\"a\",\"b\",\"c\"],\"jvm\":[\"d\"]}}";
+        assertNotNull(parse(json, DetectionLimits.DEFAULT.withMaxArguments(3)));
+        assertEquals(DetectionLimits.Limit.ARGUMENTS, exceeded(json, DetectionLimits.DEFAULT.withMaxArguments(2)));
+    }
+
+    @Test
+    void time() {
+        String json = "{\"libraries\":[" + repeat("1,", 5000) + "1]}";
+        long anHourAgo = System.nanoTime() - TimeUnit.HOURS.toNanos(1);
+        LimitExceededException e = assertThrows(LimitExceededException.class, () -> LimitedJsonParser.parse(
+                new StringReader(json), DetectionLimits.DEFAULT.withTimeBudget(Duration.ofSeconds(1)), anHourAgo));
+        assertEquals(DetectionLimits.Limit.TIME, e.getLimit());
+        assertNotNull(LimitedJsonParser.parse(new StringReader(json), DetectionLimits.UNLIMITED, anHourAgo));
+    }
+
+    @Test
+    void emptyDocumentIsNothing() {
+        assertNull(parse("", DetectionLimits.DEFAULT));
+        assertNull(parse("  \n", DetectionLimits.DEFAULT));
+    }
+
+    @Test
+    void rootMustBeAnObject() {
+        assertThrows(JsonSyntaxException.class, () -> parse("[{\"id\":\"1.20\"}]", DetectionLimits.DEFAULT));
+        assertThrows(JsonSyntaxException.class, () -> parse("\"1.20\"", DetectionLimits.DEFAULT));
+    }
+
+    @Test
+    void trailingDataIsRejected() {
+        assertThrows(JsonSyntaxException.class, () -> parse("{\"id\":\"1.20\"} garbage", DetectionLimits.DEFAULT));
+        assertThrows(JsonSyntaxException.class, () -> parse("{\"id\":\"1.20\"}{}", DetectionLimits.DEFAULT));
+        assertThrows(JsonSyntaxException.class, () -> parse("{\"id\":\"1.20\"} // c", DetectionLimits.DEFAULT));
+        assertNotNull(parse("{\"id\":\"1.20\"}\n", DetectionLimits.DEFAULT));
+        // the document itself is still read leniently
+        assertNotNull(parse("{id: '1.20' /* c */}", DetectionLimits.DEFAULT));
+    }
+
+    @Test
+    void truncatedDocumentIsInvalid() {
+        assertThrows(JsonSyntaxException.class, () -> parse("{\"id\":", DetectionLimits.DEFAULT));
+    }
+}